@@ -0,0 +1,114 @@
+package benchmark;
+
+import controller.CardAtlas;
+import controller.GameLogic;
+import controller.Table;
+import model.Card;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the card image lookups done by {@code GameGUI.drawGame} on every repaint,
+ * and of drawing the player's cards from the card atlas against scaling every card image.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class CardImageBenchmark {
+
+    private GameLogic controller; // The controller bound to a dealt table
+    private Graphics2D graphics;  // Draws on an offscreen image of the size of the game frame
+    private List<GameLogic.CardImageData> playerCards; // The sprites of the player's cards
+    private Image[] cardImages;   // The full-size images of the player's cards
+
+    /**
+     * Deals a round on a seeded table and decodes the full-size images of the player's cards.
+     *
+     * @throws IOException If a card image cannot be decoded.
+     */
+    @Setup
+    public void setup() throws IOException {
+        controller = new GameLogic(new Table(Table.NUM_DECKS, Table.PENETRATION, new Random(42)));
+        graphics = new BufferedImage(1000, 800, BufferedImage.TYPE_INT_RGB).createGraphics();
+        playerCards = controller.getPlayerCardsData(controller.getPlayer1(), 120, 500, false);
+        List<Card> hand = controller.getPlayer1().getHand();
+        cardImages = new Image[hand.size()];
+        for (int i = 0; i < cardImages.length; i++) {
+            cardImages[i] = ImageIO.read(GameLogic.class.getResource(hand.get(i).getImagePath()));
+        }
+    }
+
+    /**
+     * Looks up the images of the player's cards.
+     *
+     * @return The image data of the cards.
+     */
+    @Benchmark
+    public List<GameLogic.CardImageData> playerCardsData() {
+        return controller.getPlayerCardsData(controller.getPlayer1(), 120, 500, false);
+    }
+
+    /**
+     * Looks up the images of the dealer's cards.
+     *
+     * @return The image data of the cards.
+     */
+    @Benchmark
+    public List<GameLogic.CardImageData> dealerCardsData() {
+        return controller.getDealerCardsData(false, 160, 40);
+    }
+
+    /**
+     * Looks up the image of the hidden card once revealed.
+     *
+     * @return The image of the hidden card.
+     */
+    @Benchmark
+    public Image hiddenCardImage() {
+        return controller.getHiddenCardImage(false);
+    }
+
+    /**
+     * Draws the player's cards as unscaled copies of their sprites, as {@code GameGUI.drawCards} does.
+     */
+    @Benchmark
+    public void drawAtlasCards() {
+        for (GameLogic.CardImageData card : playerCards) {
+            int x = card.getX();
+            int y = card.getY();
+            graphics.drawImage(card.getImage(), x, y, x + card.getWidth(), y + card.getHeight(), card.getSourceX(),
+                    card.getSourceY(), card.getSourceX() + card.getSourceWidth(), card.getSourceY() + card.getSourceHeight(), null);
+        }
+    }
+
+    /**
+     * Draws the player's cards by scaling their full-size images, as the game view did before the atlas.
+     */
+    @Benchmark
+    public void drawScaledCards() {
+        for (int i = 0; i < cardImages.length; i++) {
+            graphics.drawImage(cardImages[i], 120 + 40 * i, 500, CardAtlas.CARD_WIDTH, CardAtlas.CARD_HEIGHT, null);
+        }
+    }
+}
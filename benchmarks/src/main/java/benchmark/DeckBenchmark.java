@@ -0,0 +1,100 @@
+package benchmark;
+
+import model.Card;
+import model.CompositionShoe;
+import model.Deck;
+import model.Shoe;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of {@link Deck#buildDeck(int)} and {@link Deck#drawCard()}
+ * on a 4-deck stack, on a 4-deck primitive shoe and on a 4-deck composition shoe.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class DeckBenchmark {
+
+    private static final int NUM_DECKS = 4; // Decks in every shoe, as in the game
+
+    private Random random; // Random source used to shuffle
+    private Deck shoeDeck; // Deck backed by a primitive shoe
+    private Deck sampledDeck; // Deck backed by a composition shoe
+
+    /**
+     * Builds the random source and the shoe reused by the shoe benchmarks.
+     */
+    @Setup
+    public void setup() {
+        random = new Random(42);
+        shoeDeck = new Deck(new Shoe(NUM_DECKS));
+        sampledDeck = new Deck(new CompositionShoe(NUM_DECKS, 1.0));
+    }
+
+    /**
+     * Builds and shuffles a new 4-deck stack, as the game did every round.
+     *
+     * @return The new deck.
+     */
+    @Benchmark
+    public Deck buildStackDeck() {
+        return new Deck(NUM_DECKS, random);
+    }
+
+    /**
+     * Builds a 4-deck stack and draws every card of it.
+     *
+     * @param blackhole Consumes the cards drawn.
+     */
+    @Benchmark
+    public void buildAndDrawStackDeck(Blackhole blackhole) {
+        Deck deck = new Deck(NUM_DECKS, random);
+        for (int i = 0; i < NUM_DECKS * Shoe.CODES; i++) {
+            blackhole.consume(deck.drawCard());
+        }
+    }
+
+    /**
+     * Reshuffles the 4-deck shoe and draws every card of it.
+     *
+     * @param blackhole Consumes the cards drawn.
+     */
+    @Benchmark
+    public void shuffleAndDrawShoe(Blackhole blackhole) {
+        shoeDeck.getShoe().shuffle(random);
+        for (int i = 0; i < NUM_DECKS * Shoe.CODES; i++) {
+            Card card = shoeDeck.drawCard();
+            blackhole.consume(card);
+        }
+    }
+
+    /**
+     * Refills the 4-deck composition shoe and draws every card of it by weighted sampling.
+     *
+     * @param blackhole Consumes the cards drawn.
+     */
+    @Benchmark
+    public void shuffleAndDrawSampledShoe(Blackhole blackhole) {
+        sampledDeck.shuffle(random);
+        for (int i = 0; i < NUM_DECKS * Shoe.CODES; i++) {
+            blackhole.consume(sampledDeck.drawCard());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package benchmark;
+
+import controller.BotStrategy;
+import controller.Table;
+import model.CompositionShoe;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Regression run of a one-deck shoe dealt to the last card: with the cut card at the end of the shoe,
+ * rounds regularly run out of cards and must finish on the reshuffled discards instead of failing.
+ * Runs with the stored {@link model.Shoe} and with the sampled {@link CompositionShoe}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class ExhaustedShoeBenchmark {
+
+    private static final int BATCH = 1000;           // Rounds played by each batch
+    private final int[] settlements = new int[BATCH]; // Settlements of the batch
+
+    @Param({"stored", "sampled"})
+    public String shoe; // The shoe of the table
+
+    private Table table; // One-deck table dealt to the last card
+
+    /**
+     * Builds a seeded one-deck table with the cut card at the end of the shoe.
+     */
+    @Setup
+    public void setup() {
+        table = shoe.equals("sampled") ? new Table(new CompositionShoe(1, 1.0), new Random(42))
+                : new Table(1, 1.0, new Random(42));
+    }
+
+    /**
+     * Plays a batch of rounds, every seat drawing until 17.
+     *
+     * @return The settlement of the last round.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int batchRound() {
+        table.playRounds(BATCH, BotStrategy.DRAW_TO_SEVENTEEN, settlements, null);
+        return settlements[BATCH - 1];
+    }
+}
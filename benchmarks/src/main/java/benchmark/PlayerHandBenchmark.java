@@ -0,0 +1,100 @@
+package benchmark;
+
+import model.Card;
+import model.Player;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the cost of adding one card to a hand with {@link Player#addToHand(Card)}.
+ * It compares the old evaluation, which streamed the whole hand twice for every card,
+ * with the incremental evaluation of {@link Player}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class PlayerHandBenchmark {
+
+    private static final int CARDS_PER_HAND = 5; // Cards added to each hand
+
+    private Card[] cards; // The cards added to the hand
+
+    /**
+     * The hand evaluation used before: the sum and the ace count are recomputed
+     * from the whole hand with two streams after every card.
+     */
+    static class StreamHand {
+        ArrayList<Card> hand = new ArrayList<>();
+        int sum;
+        int aceCount;
+
+        void addToHand(Card card) {
+            hand.add(card);
+            sum = hand.stream().mapToInt(Card::getValue).sum();
+            aceCount = (int) hand.stream().filter(Card::isAce).count();
+            while (sum > 21 && aceCount > 0) {
+                sum -= 10;
+                aceCount--;
+            }
+        }
+    }
+
+    /**
+     * Picks the random cards added to the hands.
+     */
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        cards = new Card[CARDS_PER_HAND];
+        for (int i = 0; i < cards.length; i++) {
+            cards[i] = Card.of(random.nextInt(Card.SUITS.length), random.nextInt(Card.RANKS.length));
+        }
+    }
+
+    /**
+     * Adds the cards to a hand evaluated with streams.
+     *
+     * @return The sum of the hand.
+     */
+    @Benchmark
+    @OperationsPerInvocation(CARDS_PER_HAND)
+    public int streamHand() {
+        StreamHand hand = new StreamHand();
+        for (Card card : cards) {
+            hand.addToHand(card);
+        }
+        return hand.sum;
+    }
+
+    /**
+     * Adds the cards to a hand evaluated incrementally.
+     *
+     * @return The sum of the hand.
+     */
+    @Benchmark
+    @OperationsPerInvocation(CARDS_PER_HAND)
+    public int incrementalHand() {
+        Player hand = new Player();
+        for (Card card : cards) {
+            hand.addToHand(card);
+        }
+        return hand.getSum();
+    }
+}
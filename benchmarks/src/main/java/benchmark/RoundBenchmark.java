@@ -0,0 +1,95 @@
+package benchmark;
+
+import controller.GameLogic;
+import controller.Table;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of a full round, of {@link Table#settleRound()} and of {@link GameLogic#determineWinner()}.
+ * Run with {@code -prof gc} to see the allocation rate per round.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class RoundBenchmark {
+
+    private Table table;         // The table the rounds are played on
+    private GameLogic controller; // The controller bound to the table
+
+    private static final int BATCH = 1000;           // Rounds played by each batch
+    private final int[] settlements = new int[BATCH]; // Settlements of the batch
+    private final byte[] totals = new byte[BATCH * Table.TOTALS_PER_ROUND]; // Final sums of the batch
+
+    /**
+     * Builds a seeded table and its controller.
+     */
+    @Setup
+    public void setup() {
+        table = new Table(Table.NUM_DECKS, Table.PENETRATION, new Random(42));
+        controller = new GameLogic(table);
+    }
+
+    /**
+     * Plays a full round: the deal, every seat drawing until 17 and the settlement.
+     *
+     * @return The message of the settlement.
+     */
+    @Benchmark
+    public String fullRound() {
+        table.startRound();
+        table.playerHit();
+        table.dealerTurn();
+        table.bot1Turn();
+        table.bot2Turn();
+        return controller.determineWinner();
+    }
+
+    /**
+     * Plays a batch of rounds with {@link GameLogic#playRounds(int, int[], byte[])}.
+     *
+     * @return The settlement of the last round.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int batchRound() {
+        controller.playRounds(BATCH, settlements, totals);
+        return settlements[BATCH - 1];
+    }
+
+    /**
+     * Settles the last round dealt, without formatting a message.
+     *
+     * @return The packed outcomes of the seats.
+     */
+    @Benchmark
+    public int settleRound() {
+        return table.settleRound();
+    }
+
+    /**
+     * Settles the last round dealt and formats the message.
+     *
+     * @return The message of the settlement.
+     */
+    @Benchmark
+    public String determineWinner() {
+        return controller.determineWinner();
+    }
+}
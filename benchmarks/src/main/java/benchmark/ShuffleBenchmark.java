@@ -0,0 +1,69 @@
+package benchmark;
+
+import model.Shoe;
+import model.ShuffleSource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of {@link Shoe#shuffle(ShuffleSource)} with every {@link ShuffleSource.Algorithm},
+ * against shuffling with one {@link Random} shared by every thread, on 1-, 4-, 8- and 64-deck shoes.
+ * Each seeded shuffle includes drawing the seed and creating the generator of the shoe.
+ * Run with {@code -t 4} to see the shared generator contend.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class ShuffleBenchmark {
+
+    private static final Random SHARED = new Random(42); // Generator shared by every thread, as Collections.shuffle did
+
+    @Param({"SHARED", "RANDOM", "SPLITTABLE", "L64X128", "SECURE"})
+    public String generator; // SHARED, or the algorithm of the shuffle source
+
+    @Param({"1", "4", "8", "64"})
+    public int decks; // Decks in the shoe
+
+    private Shoe shoe;            // Shoe reshuffled by every call
+    private ShuffleSource source; // Source of every shuffle, or null for the shared generator
+
+    /**
+     * Builds the shoe and the shuffle source.
+     */
+    @Setup
+    public void setup() {
+        shoe = new Shoe(decks);
+        source = generator.equals("SHARED") ? null : new ShuffleSource(ShuffleSource.Algorithm.valueOf(generator), 42);
+    }
+
+    /**
+     * Reshuffles the whole shoe.
+     *
+     * @return The first card of the new order.
+     */
+    @Benchmark
+    public int shuffle() {
+        if (source == null) {
+            shoe.shuffle(SHARED);
+        } else {
+            shoe.shuffle(source);
+        }
+        return shoe.codeAt(0);
+    }
+}
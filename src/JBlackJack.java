@@ -1,5 +1,14 @@
+import controller.CardImages;
+import controller.GameLogic;
+import controller.HandHistory;
+import controller.Metrics;
+import controller.RoundJournal;
+import controller.StatsStore;
 import view.GameMenu;
 
+import java.io.IOException;
+import java.nio.file.Path;
+
 /**
  * The main class for the Blackjack game application.
  */
@@ -7,10 +16,62 @@ public class JBlackJack {
 
     /**
      * The main method that starts the Blackjack game.
+     * The statistics of every player are kept in the directory named by the {@code jblackjack.stats} system property,
+     * {@code .jblackjack} in the home directory by default.
+     * Every round is recorded in a journal when the {@code jblackjack.journal} system property names its directory,
+     * and every hand in a queryable history when the {@code jblackjack.history} system property does.
+     * The metrics of the game are published through JMX as {@value Metrics#OBJECT_NAME}.
+     * The card images are decoded in the background while the menu is shown.
      * 
      * @param args The command-line arguments (not used in this application).
+     * @throws IOException If the journal or the history cannot be opened.
      */
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        Metrics.getInstance().registerMBean();
+
+        Path statsDirectory = Path.of(System.getProperty("jblackjack.stats",
+                Path.of(System.getProperty("user.home"), ".jblackjack").toString()));
+        try {
+            StatsStore stats = new StatsStore(statsDirectory);
+            GameLogic.getInstance().setStatsStore(stats);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    stats.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }));
+        } catch (IOException e) {
+            e.printStackTrace();  // Play with statistics kept in memory only
+        }
+
+        String journalDirectory = System.getProperty("jblackjack.journal");
+        if (journalDirectory != null) {
+            RoundJournal journal = GameLogic.getInstance().openJournal(Path.of(journalDirectory));
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    journal.close();  // Force the rounds still in the page cache
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }));
+        }
+        String historyDirectory = System.getProperty("jblackjack.history");
+        if (historyDirectory != null) {
+            HandHistory history = GameLogic.getInstance().openHistory(Path.of(historyDirectory));
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    history.close();  // Seal the hands kept in memory
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }));
+        }
+        // Decode the card images while the menu is shown, so the first game does not wait for them
+        Thread images = new Thread(CardImages::preload, "card-images");
+        images.setDaemon(true);
+        images.start();
+
         // Create a new instance of BlackJackView to start the game
         new GameMenu();
     }
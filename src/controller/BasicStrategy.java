@@ -0,0 +1,81 @@
+package controller;
+
+/**
+ * Basic strategy for hitting and staying against a dealer who stands on 17.
+ * The decisions are computed once into a dense table indexed by the hand total,
+ * whether the hand is soft and the dealer's upcard, so every decision is a single array read.
+ */
+public final class BasicStrategy implements BotStrategy {
+
+    public static final BasicStrategy INSTANCE = new BasicStrategy(); // The shared strategy
+
+    private static final int TOTALS = 32;    // Hand totals covered by the table, from 0 to 31
+    private static final int UPCARDS = 12;   // Dealer upcards covered by the table, from 0 to 11
+    private static final boolean[] HIT = new boolean[2 * TOTALS * UPCARDS]; // Decision by soft, total and upcard
+
+    static {
+        for (int total = 0; total < TOTALS; total++) {
+            for (int upcard = 2; upcard < UPCARDS; upcard++) {
+                HIT[index(total, false, upcard)] = hardHit(total, upcard);
+                HIT[index(total, true, upcard)] = softHit(total, upcard);
+            }
+        }
+    }
+
+    private BasicStrategy() {
+    }
+
+    /**
+     * Computes the position of a decision in the table.
+     *
+     * @param total The best sum of the hand.
+     * @param soft Whether an ace of the hand is counted as 11.
+     * @param dealerUpcard The value of the dealer's visible card.
+     * @return The index of the decision.
+     */
+    private static int index(int total, boolean soft, int dealerUpcard) {
+        return ((soft ? TOTALS : 0) + total) * UPCARDS + dealerUpcard;
+    }
+
+    /**
+     * The basic strategy rule for a hard hand.
+     *
+     * @param total The sum of the hand.
+     * @param upcard The value of the dealer's visible card.
+     * @return true to hit, false to stay.
+     */
+    private static boolean hardHit(int total, int upcard) {
+        if (total <= 11) {
+            return true;
+        }
+        if (total == 12) {
+            return upcard < 4 || upcard > 6;
+        }
+        if (total <= 16) {
+            return upcard > 6;
+        }
+        return false;
+    }
+
+    /**
+     * The basic strategy rule for a soft hand.
+     *
+     * @param total The sum of the hand, with an ace counted as 11.
+     * @param upcard The value of the dealer's visible card.
+     * @return true to hit, false to stay.
+     */
+    private static boolean softHit(int total, int upcard) {
+        if (total <= 17) {
+            return true;
+        }
+        if (total == 18) {
+            return upcard >= 9;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean shouldHit(int total, boolean soft, int dealerUpcard) {
+        return total < TOTALS && HIT[index(total, soft, dealerUpcard)];
+    }
+}
@@ -0,0 +1,23 @@
+package controller;
+
+/**
+ * A strategy deciding whether a seat hits or stays.
+ * Decisions only use primitive values, so asking for one never allocates.
+ */
+public interface BotStrategy {
+
+    /**
+     * The rule the bots have always used: hit while the sum is below 17.
+     */
+    BotStrategy DRAW_TO_SEVENTEEN = (total, soft, dealerUpcard) -> total < 17;
+
+    /**
+     * Decides whether a hand should draw another card.
+     *
+     * @param total The best sum of the hand.
+     * @param soft Whether an ace of the hand is counted as 11.
+     * @param dealerUpcard The value of the dealer's visible card, from 2 to 11 for an ace.
+     * @return true to hit, false to stay.
+     */
+    boolean shouldHit(int total, boolean soft, int dealerUpcard);
+}
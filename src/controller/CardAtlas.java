@@ -0,0 +1,169 @@
+package controller;
+
+import model.Card;
+import model.Shoe;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * The sprite atlas of the cards: one image holding the 52 faces and the back, each already scaled
+ * to the size the game view draws them, and an index giving the rectangle of every card in the image.
+ * The faces are laid out with one suit per row and one rank per column, and the back starts the last row.
+ * The atlas is generated at build time from the card images by {@link #main(String[])}
+ * and saved next to them as {@value #IMAGE} and {@value #INDEX}.
+ */
+public final class CardAtlas {
+
+    public static final int CARD_WIDTH = 120;  // Width of a card drawn by the game view
+    public static final int CARD_HEIGHT = 170; // Height of a card drawn by the game view
+    public static final String BACK = "BACK";  // Name of the back of the cards in the index
+    public static final String IMAGE = "atlas.png"; // File of the atlas image
+    public static final String INDEX = "atlas.txt"; // File of the atlas index
+    private static final int COLUMNS = Shoe.RANK_COUNT; // Cards on a row of the atlas
+
+    private final BufferedImage image;            // The packed cards
+    private final Map<String, Rectangle> sprites; // Rectangle of every card in the image, by name
+
+    /**
+     * Constructs an atlas from its image and its index.
+     *
+     * @param image The packed cards.
+     * @param sprites The rectangle of every card in the image, by name.
+     */
+    private CardAtlas(BufferedImage image, Map<String, Rectangle> sprites) {
+        this.image = image;
+        this.sprites = sprites;
+    }
+
+    /**
+     * Packs the card images into a new atlas, scaling each one to the size of a drawn card.
+     *
+     * @param cards Decodes the image of a card from its name, "rank-suit" or {@value #BACK}.
+     * @return The new atlas.
+     */
+    public static CardAtlas build(Function<String, BufferedImage> cards) {
+        BufferedImage image = new BufferedImage(COLUMNS * CARD_WIDTH, (Card.SUITS.length + 1) * CARD_HEIGHT,
+                BufferedImage.TYPE_INT_ARGB);
+        Map<String, Rectangle> sprites = new LinkedHashMap<>();
+        Graphics2D graphics = image.createGraphics();
+        for (int ordinal = 0; ordinal <= Shoe.CODES; ordinal++) {
+            String name = ordinal < Shoe.CODES ? Card.of(ordinal).toString() : BACK;
+            Rectangle sprite = new Rectangle(ordinal % COLUMNS * CARD_WIDTH, ordinal / COLUMNS * CARD_HEIGHT,
+                    CARD_WIDTH, CARD_HEIGHT);
+            // Area averaging keeps the detail of the large card images, which a per-paint scale loses
+            Image scaled = cards.apply(name).getScaledInstance(CARD_WIDTH, CARD_HEIGHT, Image.SCALE_AREA_AVERAGING);
+            graphics.drawImage(scaled, sprite.x, sprite.y, null);
+            sprites.put(name, sprite);
+        }
+        graphics.dispose();
+        return new CardAtlas(image, sprites);
+    }
+
+    /**
+     * Reads an atlas saved by {@link #write(Path)}.
+     *
+     * @param image The location of the atlas image.
+     * @param index The location of the atlas index.
+     * @return The atlas.
+     * @throws IOException If the atlas cannot be read or its index is malformed.
+     */
+    public static CardAtlas read(URL image, URL index) throws IOException {
+        Map<String, Rectangle> sprites = new LinkedHashMap<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(index.openStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split(" ");
+                if (fields.length != 5) {
+                    throw new IOException("Malformed atlas index line: " + line);
+                }
+                sprites.put(fields[0], new Rectangle(Integer.parseInt(fields[1]), Integer.parseInt(fields[2]),
+                        Integer.parseInt(fields[3]), Integer.parseInt(fields[4])));
+            }
+        }
+        BufferedImage decoded = ImageIO.read(image);
+        if (decoded == null) {
+            throw new IOException("Not an image: " + image);
+        }
+        return new CardAtlas(decoded, sprites);
+    }
+
+    /**
+     * Saves the atlas image and its index in a directory.
+     *
+     * @param directory The directory receiving {@value #IMAGE} and {@value #INDEX}.
+     * @throws IOException If the files cannot be written.
+     */
+    public void write(Path directory) throws IOException {
+        ImageIO.write(image, "png", directory.resolve(IMAGE).toFile());
+        try (Writer writer = Files.newBufferedWriter(directory.resolve(INDEX), StandardCharsets.UTF_8)) {
+            writer.write("# Generated by controller.CardAtlas: name x y width height\n");
+            for (Map.Entry<String, Rectangle> entry : sprites.entrySet()) {
+                Rectangle sprite = entry.getValue();
+                writer.write(entry.getKey() + " " + sprite.x + " " + sprite.y + " " + sprite.width + " " + sprite.height + "\n");
+            }
+        }
+    }
+
+    /**
+     * Retrieves the packed cards.
+     *
+     * @return The atlas image.
+     */
+    public BufferedImage getImage() {
+        return image;
+    }
+
+    /**
+     * Retrieves the rectangle of a card in the atlas image.
+     *
+     * @param name The name of the card, "rank-suit" or {@value #BACK}.
+     * @return The rectangle of the card.
+     * @throws IllegalArgumentException If the atlas has no such card.
+     */
+    public Rectangle getSprite(String name) {
+        Rectangle sprite = sprites.get(name);
+        if (sprite == null) {
+            throw new IllegalArgumentException("No card in the atlas: " + name);
+        }
+        return sprite;
+    }
+
+    /**
+     * Generates the atlas from the card images of a directory, and saves it in that directory.
+     *
+     * @param args The directory holding the card images, src/controller/Cards by default.
+     * @throws IOException If an image cannot be read or the atlas cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        Path directory = Path.of(args.length > 0 ? args[0] : "src/controller/Cards");
+        CardAtlas atlas = build(name -> {
+            try {
+                return ImageIO.read(directory.resolve(name + ".png").toFile());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        atlas.write(directory);
+        System.out.printf("Wrote %s and %s with %d cards of %dx%d%n",
+                directory.resolve(IMAGE), directory.resolve(INDEX), atlas.sprites.size(), CARD_WIDTH, CARD_HEIGHT);
+    }
+}
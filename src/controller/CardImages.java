@@ -0,0 +1,158 @@
+package controller;
+
+import model.Card;
+import model.Shoe;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.Rectangle;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
+
+/**
+ * Cache of the card images drawn by the game view.
+ * The cards come from the {@link CardAtlas} generated at build time, decoded once the first time the class is used
+ * and copied into an image of the format of the screen, which Java2D can keep accelerated.
+ * Every card is a sprite of that image already at the size it is drawn, so drawing a card is an unscaled copy
+ * of its rectangle. If the atlas is missing, it is built in memory from the card images.
+ */
+public final class CardImages {
+
+    public static final int BACK = Shoe.CODES; // Sprite of the back of the cards, after the 52 faces
+    private static final Image ATLAS;           // The packed cards, in the format of the screen
+    private static final int[] SPRITE_X = new int[BACK + 1]; // X of every sprite in the atlas
+    private static final int[] SPRITE_Y = new int[BACK + 1]; // Y of every sprite in the atlas
+    private static final Image[] IMAGES = new Image[BACK + 1]; // Every sprite as an image of its own
+
+    static {
+        CardAtlas atlas = load();
+        BufferedImage image = compatibleImage(atlas.getImage().getWidth(), atlas.getImage().getHeight());
+        Graphics2D graphics = image.createGraphics();
+        graphics.drawImage(atlas.getImage(), 0, 0, null);
+        graphics.dispose();
+        ATLAS = image;
+        for (int sprite = 0; sprite <= BACK; sprite++) {
+            Rectangle rectangle = atlas.getSprite(sprite == BACK ? CardAtlas.BACK : Card.of(sprite).toString());
+            SPRITE_X[sprite] = rectangle.x;
+            SPRITE_Y[sprite] = rectangle.y;
+            IMAGES[sprite] = image.getSubimage(rectangle.x, rectangle.y, CardAtlas.CARD_WIDTH, CardAtlas.CARD_HEIGHT);
+        }
+    }
+
+    private CardImages() {
+    }
+
+    /**
+     * Decodes the atlas now, unless it is already done, so the first repaint does not wait for it.
+     */
+    public static void preload() {
+        // Using the class runs its initializer, which decodes the atlas once
+    }
+
+    /**
+     * Retrieves the sprite of the face of a card.
+     *
+     * @param card The card.
+     * @return The index of the sprite, to pass to {@link #spriteX(int)} and {@link #spriteY(int)}.
+     */
+    public static int sprite(Card card) {
+        return card.ordinal();
+    }
+
+    /**
+     * Retrieves the image holding every sprite.
+     *
+     * @return The shared atlas image.
+     */
+    public static Image atlas() {
+        return ATLAS;
+    }
+
+    /**
+     * Retrieves the left edge of a sprite in the atlas.
+     *
+     * @param sprite The index of the sprite, a card ordinal or {@link #BACK}.
+     * @return The x coordinate of the sprite.
+     */
+    public static int spriteX(int sprite) {
+        return SPRITE_X[sprite];
+    }
+
+    /**
+     * Retrieves the top edge of a sprite in the atlas.
+     *
+     * @param sprite The index of the sprite, a card ordinal or {@link #BACK}.
+     * @return The y coordinate of the sprite.
+     */
+    public static int spriteY(int sprite) {
+        return SPRITE_Y[sprite];
+    }
+
+    /**
+     * Retrieves the face of a card as an image of its own.
+     *
+     * @param card The card.
+     * @return The shared image of the face of the card, at the drawn size.
+     */
+    public static Image face(Card card) {
+        return IMAGES[card.ordinal()];
+    }
+
+    /**
+     * Retrieves the back of the cards as an image of its own.
+     *
+     * @return The shared image of the back, at the drawn size.
+     */
+    public static Image back() {
+        return IMAGES[BACK];
+    }
+
+    /**
+     * Reads the atlas saved next to the card images, or builds it from them if it is missing.
+     *
+     * @return The atlas.
+     * @throws UncheckedIOException If the atlas or a card image cannot be decoded.
+     */
+    private static CardAtlas load() {
+        URL image = CardImages.class.getResource("Cards/" + CardAtlas.IMAGE);
+        URL index = CardImages.class.getResource("Cards/" + CardAtlas.INDEX);
+        try {
+            if (image != null && index != null) {
+                return CardAtlas.read(image, index);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return CardAtlas.build(name -> {
+            URL card = CardImages.class.getResource("Cards/" + name + ".png");
+            if (card == null) {
+                throw new IllegalStateException("Missing card image: " + name);
+            }
+            try {
+                return ImageIO.read(card);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Creates an image in the format of the screen, or premultiplied ARGB when there is no screen.
+     *
+     * @param width The width of the image.
+     * @param height The height of the image.
+     * @return A new translucent image.
+     */
+    private static BufferedImage compatibleImage(int width, int height) {
+        if (GraphicsEnvironment.isHeadless()) {
+            return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+        }
+        return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration()
+                .createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+    }
+}
@@ -0,0 +1,269 @@
+package controller;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Computes the exact probabilities of the dealer's final hand under the rule of
+ * {@link Table#dealerTurn()}: draw until the sum is 17 or higher, counting an ace as 11
+ * only while it does not bust the hand (so a soft 17 stands).
+ * The calculator walks the whole draw tree over the counts of each card value left in the shoe.
+ * Sub-results are memoized by the remaining composition and the dealer's hand in a bounded
+ * least-recently-used cache, so later queries on nearby compositions reuse earlier work.
+ * Compositions are packed in a long, which holds the counts of shoes of up to {@value #MAX_DECKS} decks.
+ * An instance is not thread-safe.
+ */
+public class DealerProbabilities {
+
+    public static final int OUTCOMES = 6; // Outcomes: 17, 18, 19, 20, 21 and bust
+    public static final int BUST = 5;     // Index of the bust outcome
+
+    public static final int MAX_DECKS = 15;     // Largest shoe whose counts fit in a composition key
+    static final int TEN = 10;                  // Index of the 10-valued cards in the counts
+    private static final int SMALL_BITS = 6;    // Key bits of the count of each value from ace to 9
+    private static final int TEN_BITS = 8;      // Key bits of the count of 10-valued cards
+    static final int KEY_BITS = 9 * SMALL_BITS + TEN_BITS; // Bits of a composition key
+
+    private static final double[][] FINAL = new double[22 + 1][]; // Result of a dealer standing on each total, bust last
+
+    static {
+        for (int total = 17; total <= 21; total++) {
+            FINAL[total] = new double[OUTCOMES];
+            FINAL[total][total - 17] = 1;
+        }
+        FINAL[22] = new double[OUTCOMES];
+        FINAL[22][BUST] = 1;
+    }
+
+    private final Map<CompositionKey, double[]> cache; // Memoized results by composition and dealer hand
+    private final int[] counts = new int[TEN + 1]; // Counts of the query being computed, by value
+    private long hits;                             // Cache lookups answered
+    private long misses;                           // Cache lookups computed
+
+    /**
+     * Constructs a calculator with a cache of the given size.
+     *
+     * @param cacheCapacity The maximum number of sub-results kept in the cache.
+     */
+    @SuppressWarnings("serial")
+    public DealerProbabilities(int cacheCapacity) {
+        this.cache = new LinkedHashMap<>(Math.min(cacheCapacity, 1 << 16), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CompositionKey, double[]> eldest) {
+                return size() > cacheCapacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the counts of each card value in full shoes, indexed by value
+     * (1 for aces, 10 for tens and face cards).
+     *
+     * @param numDecks The number of decks in the shoe.
+     * @return The counts of a full shoe.
+     */
+    public static int[] fullShoe(int numDecks) {
+        int[] shoe = new int[TEN + 1];
+        for (int value = 1; value < TEN; value++) {
+            shoe[value] = 4 * numDecks;
+        }
+        shoe[TEN] = 16 * numDecks;
+        return shoe;
+    }
+
+    /**
+     * Checks if counts of card values can be packed in a composition key.
+     *
+     * @param counts The counts of each value, indexed by value from 1 to 10.
+     * @return true if every count fits in its bits of the key.
+     */
+    static boolean canPack(int[] counts) {
+        for (int value = 1; value <= TEN; value++) {
+            if (counts[value] >= 1 << (value == TEN ? TEN_BITS : SMALL_BITS)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Packs counts of card values in a composition key. Removing a card of a value
+     * from the counts is the same as subtracting {@code 1L << shift(value)} from the key.
+     *
+     * @param counts The counts of each value, indexed by value from 1 to 10.
+     * @return The composition key, using the lowest {@link #KEY_BITS} bits.
+     */
+    static long pack(int[] counts) {
+        long key = 0;
+        for (int value = 1; value <= TEN; value++) {
+            key += (long) counts[value] << shift(value);
+        }
+        return key;
+    }
+
+    /**
+     * Computes the probabilities of the dealer's final hand.
+     * The dealer's hidden card is drawn from the remaining cards as part of the tree.
+     *
+     * @param upcard The value of the dealer's visible card, from 2 to 11 for an ace.
+     * @param remaining The counts of each value left in the shoe, indexed by value from 1 to 10,
+     *                  without the upcard. The array is not modified.
+     * @return The probabilities of finishing on 17, 18, 19, 20, 21 and of busting.
+     * @throws IllegalArgumentException If the counts are larger than those of {@value #MAX_DECKS} decks.
+     */
+    public double[] outcomes(int upcard, int[] remaining) {
+        if (!canPack(remaining)) {
+            throw new IllegalArgumentException("Counts larger than a shoe of " + MAX_DECKS + " decks");
+        }
+        System.arraycopy(remaining, 1, counts, 1, TEN);
+        int value = upcard == 11 ? 1 : upcard;
+        return dealer(value, value == 1, pack(remaining)).clone();
+    }
+
+    /**
+     * Computes the results of a dealer's hand still to be played.
+     *
+     * @param hard The sum of the hand with aces counted as 1.
+     * @param ace Whether the hand holds an ace.
+     * @param composition The key of the remaining counts.
+     * @return The probabilities of each outcome, shared with the cache and never modified.
+     */
+    private double[] dealer(int hard, boolean ace, long composition) {
+        int best = ace && hard + 10 <= 21 ? hard + 10 : hard;
+        if (best >= 17) {
+            return FINAL[Math.min(best, 22)];
+        }
+
+        CompositionKey key = new CompositionKey(composition, hard << 1 | (ace ? 1 : 0));
+        double[] cached = cache.get(key);
+        if (cached != null) {
+            hits++;
+            return cached;
+        }
+        misses++;
+
+        int total = 0;
+        for (int value = 1; value <= TEN; value++) {
+            total += counts[value];
+        }
+        double[] result = new double[OUTCOMES]; // Stays empty if the shoe runs out
+        for (int value = 1; value <= TEN && total > 0; value++) {
+            int count = counts[value];
+            if (count == 0) {
+                continue;
+            }
+            double p = (double) count / total;
+            counts[value]--;
+            double[] next = dealer(hard + value, ace || value == 1, composition - (1L << shift(value)));
+            counts[value]++;
+            for (int i = 0; i < OUTCOMES; i++) {
+                result[i] += p * next[i];
+            }
+        }
+
+        cache.put(key, result);
+        return result;
+    }
+
+    /**
+     * Key of a cache entry: a composition key and the state it is paired with,
+     * the dealer's hand or the player's upcard.
+     */
+    static final class CompositionKey {
+        private final long composition; // The packed counts left in the shoe
+        private final int state;        // The hand or the upcard paired with the counts
+
+        /**
+         * Constructs a cache key.
+         *
+         * @param composition The packed counts left in the shoe.
+         * @param state The hand or the upcard paired with the counts.
+         */
+        CompositionKey(long composition, int state) {
+            this.composition = composition;
+            this.state = state;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof CompositionKey)) {
+                return false;
+            }
+            CompositionKey key = (CompositionKey) other;
+            return composition == key.composition && state == key.state;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(composition * 31 + state);
+        }
+    }
+
+    /**
+     * Returns the key position of the count of a value.
+     *
+     * @param value The card value, from 1 to 10.
+     * @return The bit position of the count in the composition key.
+     */
+    static int shift(int value) {
+        return (value - 1) * SMALL_BITS;
+    }
+
+    /**
+     * Returns the number of cache lookups answered from the cache.
+     *
+     * @return The cache hit count.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of cache lookups that had to be computed.
+     *
+     * @return The cache miss count.
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns the number of sub-results kept in the cache.
+     *
+     * @return The cache size.
+     */
+    public int getCacheSize() {
+        return cache.size();
+    }
+
+    /**
+     * Prints the dealer's outcome probabilities for every upcard of a full shoe,
+     * then the time of a query once the cache is warm.
+     *
+     * @param args The number of decks (optional, 4 by default).
+     */
+    public static void main(String[] args) {
+        int numDecks = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        DealerProbabilities calculator = new DealerProbabilities(1_000_000);
+
+        System.out.println("Upcard     17      18      19      20      21    Bust");
+        for (int upcard = 2; upcard <= 11; upcard++) {
+            int[] shoe = fullShoe(numDecks);
+            shoe[upcard == 11 ? 1 : upcard]--;
+            double[] p = calculator.outcomes(upcard, shoe);
+            System.out.printf("%6s %7.4f %7.4f %7.4f %7.4f %7.4f %7.4f%n", upcard == 11 ? "A" : upcard,
+                    p[0], p[1], p[2], p[3], p[4], p[BUST]);
+        }
+
+        int[] shoe = fullShoe(numDecks);
+        shoe[TEN]--;
+        int queries = 100_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < queries; i++) {
+            calculator.outcomes(TEN, shoe);
+        }
+        System.out.printf("Warm query: %.2f us (cache %d entries, %d hits, %d misses)%n",
+                (System.nanoTime() - start) / 1000.0 / queries, calculator.getCacheSize(),
+                calculator.getHits(), calculator.getMisses());
+    }
+}
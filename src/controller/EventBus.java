@@ -0,0 +1,87 @@
+package controller;
+
+import model.Card;
+import model.Shoe;
+
+import java.util.Arrays;
+
+/**
+ * Forwards the events of a table to every subscribed {@link GameListener}.
+ * The bus has no Swing dependency, so headless code can subscribe the same way as the views.
+ * Publishing walks an array of listeners replaced on every change of subscription,
+ * so it never locks and never allocates.
+ */
+public class EventBus implements GameListener {
+
+    private volatile GameListener[] listeners = new GameListener[0]; // The subscribed listeners
+
+    /**
+     * Subscribes a listener to the events of the table.
+     *
+     * @param listener The listener to add.
+     */
+    public synchronized void subscribe(GameListener listener) {
+        GameListener[] newListeners = Arrays.copyOf(listeners, listeners.length + 1);
+        newListeners[listeners.length] = listener;
+        listeners = newListeners;
+    }
+
+    /**
+     * Unsubscribes a listener. Nothing happens if the listener is not subscribed.
+     *
+     * @param listener The listener to remove.
+     */
+    public synchronized void unsubscribe(GameListener listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                GameListener[] newListeners = new GameListener[listeners.length - 1];
+                System.arraycopy(listeners, 0, newListeners, 0, i);
+                System.arraycopy(listeners, i + 1, newListeners, i, listeners.length - i - 1);
+                listeners = newListeners;
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void shoeShuffled(Shoe shoe) {
+        for (GameListener listener : listeners) {
+            listener.shoeShuffled(shoe);
+        }
+    }
+
+    @Override
+    public void discardsReshuffled(Shoe shoe) {
+        for (GameListener listener : listeners) {
+            listener.discardsReshuffled(shoe);
+        }
+    }
+
+    @Override
+    public void cardDealt(int seat, Card card) {
+        for (GameListener listener : listeners) {
+            listener.cardDealt(seat, card);
+        }
+    }
+
+    @Override
+    public void roundStarted() {
+        for (GameListener listener : listeners) {
+            listener.roundStarted();
+        }
+    }
+
+    @Override
+    public void turnEnded(int seat) {
+        for (GameListener listener : listeners) {
+            listener.turnEnded(seat);
+        }
+    }
+
+    @Override
+    public void roundSettled(int settlement) {
+        for (GameListener listener : listeners) {
+            listener.roundSettled(settlement);
+        }
+    }
+}
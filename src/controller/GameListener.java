@@ -0,0 +1,60 @@
+package controller;
+
+import model.Card;
+import model.Shoe;
+
+/**
+ * Receives the changes of a table as they happen.
+ * Every method has an empty default, so a listener only overrides the events it needs.
+ * Listeners are called on the thread playing the table and must not block it.
+ */
+public interface GameListener {
+
+    /**
+     * Called when the shoe has been reshuffled, before the first card of the round is dealt.
+     *
+     * @param shoe The shoe, in its new draw order.
+     */
+    default void shoeShuffled(Shoe shoe) {
+    }
+
+    /**
+     * Called when the shoe ran out during a round and its discards were reshuffled to finish it,
+     * just before the card drawn from the new order is dealt.
+     *
+     * @param shoe The shoe, in its new draw order: the reshuffled discards, then the cards in play.
+     */
+    default void discardsReshuffled(Shoe shoe) {
+    }
+
+    /**
+     * Called when a card is dealt to a seat, including the dealer's hidden card.
+     *
+     * @param seat The seat: {@link Table#PLAYER}, {@link Table#BOT1}, {@link Table#BOT2} or {@link Table#DEALER}.
+     * @param card The card dealt.
+     */
+    default void cardDealt(int seat, Card card) {
+    }
+
+    /**
+     * Called when every seat has its first two cards.
+     */
+    default void roundStarted() {
+    }
+
+    /**
+     * Called when a seat has finished drawing cards.
+     *
+     * @param seat The seat: {@link Table#PLAYER}, {@link Table#BOT1}, {@link Table#BOT2} or {@link Table#DEALER}.
+     */
+    default void turnEnded(int seat) {
+    }
+
+    /**
+     * Called when a round has been settled.
+     *
+     * @param settlement The settlement returned by {@link Table#settleRound()}.
+     */
+    default void roundSettled(int settlement) {
+    }
+}
@@ -1,44 +1,57 @@
 package controller;
 
 import model.Player;
+import model.ShuffleSource;
 import view.GameMenu;
 import view.GameGUI;
 import model.Card;
-import model.Deck;
 
-import javax.swing.*;
 import java.awt.*;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Observable;
 
 /**
  * The Controller class manages the game logic for a Blackjack game,
  * coordinating interactions between the players (human and bots),
  * the deck of cards, and the game view.
+ * All the game state belongs to the {@link Table} the controller is bound to;
+ * the GUI uses the single instance returned by {@link #getInstance()}.
+ * Changes are published to the listeners subscribed to {@link #getEvents()}.
  */
-@SuppressWarnings("deprecation")
-public class GameLogic extends Observable {
+public class GameLogic {
 
-    public static Deck deck;       // The deck of cards
-    public static Player dealer;   // The dealer player
-    public static Player player1;  // The human player
-    public static Player bot1;     // Bot player 1
-    public static Player bot2;     // Bot player 2
-
-    public static int gamesPlayed = 0;  // Number of games played
-    public static int gamesWon = 0;     // Number of games won by the player
-    public static int gamesLost = 0;    // Number of games lost by the player
-
-    public  static Card hiddenCard;  // The hidden card of the dealer
+    private final Table table;  // The table played by this controller
+    private Table batchTable;   // The table of playRounds, apart from the one on screen, created on first use
+    private final EventBus events = new EventBus(); // The bus publishing the events of the table
+    private StatsStore stats;   // The store keeping the statistics across sessions, or null
+    private String profile;     // The profile the rounds are recorded for, or null
+    private HandHistory history; // The history recording every hand, or null
+    private final StatsAggregator aggregator = new StatsAggregator(); // Rolling statistics of the human player
 
     private static GameLogic instance;
+
+    private static final LatencyHistogram START_GAME = Metrics.getInstance().histogram("game.startGame");
+    private static final LatencyHistogram HIT_ACTION = Metrics.getInstance().histogram("game.hitAction");
+    private static final LatencyHistogram STAY_ACTION = Metrics.getInstance().histogram("game.stayAction");
     
     /**
-     * Constructs a new Controller instance and starts the game.
+     * Constructs a new Controller instance on a new table and starts the game.
      */
     
     private GameLogic() {
+        this(new Table());
+    }
+
+    /**
+     * Constructs a new Controller instance on the given table and starts the game.
+     *
+     * @param table The table played by this controller.
+     */
+    public GameLogic(Table table) {
+        this.table = table;
+        table.setListener(events);
         startGame();
     }
     
@@ -46,172 +59,246 @@ public class GameLogic extends Observable {
     public static synchronized GameLogic getInstance() {
         if (instance == null) {
             instance = new GameLogic();
+            Metrics.getInstance().gauge("shoe.remaining", () -> instance.table.getDeck().remaining());
         }
         return instance;
     }
 
     /**
-     * Initializes the game by creating a new deck, dealing cards to the dealer and players,
-     * and notifying observers (the game view) of the initial game state.
+     * Initializes the game by dealing cards to the dealer and players from the table's shoe;
+     * every card dealt and the start of the round are published to the listeners (the game view).
+     * The shoe is reshuffled only once the cut card has come out.
      */
     public void startGame() {
-        deck = new Deck(4);  // Create a new deck with 4 sets of cards
-        dealer = new Player();  // Initialize the dealer
-        player1 = new Player(); // Initialize the human player
-        bot1 = new Player();    // Initialize bot player 1
-        bot2 = new Player();    // Initialize bot player 2
-
-        hiddenCard = deck.drawCard();  // Draw the dealer's hidden card
-        dealer.addToHand(hiddenCard);  // Add hidden card to dealer's hand
-        dealer.addToHand(deck.drawCard());  // Draw another card for the dealer
-
-        // Draw two cards each for the human player and bots
-        for (int i = 0; i < 2; i++) {
-            player1.addToHand(deck.drawCard());
-            bot1.addToHand(deck.drawCard());
-            bot2.addToHand(deck.drawCard());
-        }
-
-        setChanged();  // Indicate that the game state has changed
-        notifyObservers();  // Notify the observers (game view)
+        long start = System.nanoTime();
+        RoundEvent event = new RoundEvent();
+        event.begin();
+        table.startRound();
+        commitRound(event, "startGame");
+        START_GAME.recordSince(start);
     }
 
     /**
      * Handles the player's hit action by drawing a card and updating the game state.
      */
     public void playerHit() {
-        player1.addToHand(deck.drawCard());  // Draw a card for the player
-
-        // Check if the player has aces and needs to reduce their value to stay below 21
-        if (player1.getAceCount() > 0 && player1.getSum() > 21) {
-            player1.reduceAce();
-        }
-        setChanged();
-        notifyObservers();
-        System.out.println("Player hit: " + player1.getHand());
+        TurnEvent event = new TurnEvent();
+        event.begin();
+        table.playerHit();  // Draw a card for the player, aces are reduced by the hand
+        commitTurn(event, "playerHit", Table.PLAYER, getPlayer1());
+        System.out.println("Player hit: " + getPlayer1().getHand());
     }
 
     /**
      * Simulates the dealer's turn by drawing cards until the sum is 17 or higher.
      */
     public void dealerTurn() {
-        while (dealer.getSum() < 17) {
-            dealer.addToHand(deck.drawCard());
-
-            // Check if the dealer has aces and needs to reduce their value to stay below 21
-            if (dealer.getAceCount() > 0 && dealer.getSum() > 21) {
-                dealer.reduceAce();
-            }
-        }
-        setChanged();
-        notifyObservers();
+        TurnEvent event = new TurnEvent();
+        event.begin();
+        table.dealerTurn();
+        commitTurn(event, "dealerTurn", Table.DEALER, getDealer());
 
-        System.out.println("Dealer turn complete: " + dealer.getHand());
+        System.out.println("Dealer turn complete: " + getDealer().getHand());
     }
 
     /**
      * Simulates bot player 1's turn by drawing cards until the sum is 17 or higher.
      */
     public void bot1Turn() {
-        while (bot1.getSum() < 17) {
-            bot1.addToHand(deck.drawCard());
-
-            // Check if bot player 1 has aces and needs to reduce their value to stay below 21
-            if (bot1.getAceCount() > 0 && bot1.getSum() > 21) {
-                bot1.reduceAce();
-            }
-        }
-        setChanged();
-        notifyObservers();
-        System.out.println("Bot1 turn complete: " + bot1.getHand());
+        TurnEvent event = new TurnEvent();
+        event.begin();
+        table.bot1Turn();
+        commitTurn(event, "bot1Turn", Table.BOT1, getBot1());
+        System.out.println("Bot1 turn complete: " + getBot1().getHand());
     }
 
     /**
      * Simulates bot player 2's turn by drawing cards until the sum is 17 or higher.
      */
     public void bot2Turn() {
-        while (bot2.getSum() < 17) {
-            bot2.addToHand(deck.drawCard());
-
-            // Check if bot player 2 has aces and needs to reduce their value to stay below 21
-            if (bot2.getAceCount() > 0 && bot2.getSum() > 21) {
-                bot2.reduceAce();
-            }
-        }
-        setChanged();
-        notifyObservers();
+        TurnEvent event = new TurnEvent();
+        event.begin();
+        table.bot2Turn();
+        commitTurn(event, "bot2Turn", Table.BOT2, getBot2());
 
-        System.out.println("Bot2 turn complete: " + bot2.getHand());
+        System.out.println("Bot2 turn complete: " + getBot2().getHand());
     }
 
     /**
      * Determines the winner of the game based on the current sums of all players and the dealer.
+     * This only formats the result, and the view calls it on every repaint: the statistics are recorded
+     * and the settlement event is emitted once, when the round ends.
      *
      * @return A string message indicating the result of the game.
      */
     public String determineWinner() {
-        int playerSum = player1.getSum();
-        int bot1Sum = bot1.getSum();
-        int bot2Sum = bot2.getSum();
-        int dealerSum = dealer.getSum();
-
-        // Determine if each player (human and bots) wins, loses, or ties with the dealer
-        boolean playerWins = playerSum <= 21 && (playerSum > dealerSum || dealerSum > 21);
-        if (playerWins) {
-            gamesWon++;
-        } else {
-            gamesLost++;
+        return formatResults(table.settleRound());
+    }
+
+    /**
+     * Ends a turn event and commits it if the recording wants it.
+     *
+     * @param event The event begun before the turn.
+     * @param phase The method playing the turn.
+     * @param seat The seat playing the turn.
+     * @param player The player of the seat.
+     */
+    private void commitTurn(TurnEvent event, String phase, int seat, Player player) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.phase = phase;
+            event.seat = seat;
+            event.cards = player.getHand().size();
+            event.shoeRemaining = table.getDeck().remaining();
+            event.commit();
         }
-        boolean bot1Wins = bot1Sum <= 21 && (bot1Sum > dealerSum || dealerSum > 21);
-        boolean bot2Wins = bot2Sum <= 21 && (bot2Sum > dealerSum || dealerSum > 21);
+    }
 
-        // Determine if there are ties between players and the dealer
-        boolean tiePlayer = playerSum == dealerSum && playerSum <= 21;
-        boolean tieBot1 = bot1Sum == dealerSum && bot1Sum <= 21;
-        boolean tieBot2 = bot2Sum == dealerSum && bot2Sum <= 21;
+    /**
+     * Ends a round event and commits it if the recording wants it.
+     *
+     * @param event The event begun before the deal or the settlement.
+     * @param phase The method dealing or settling the round.
+     */
+    private void commitRound(RoundEvent event, String phase) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.phase = phase;
+            event.cards = getDealer().getHand().size() + getPlayer1().getHand().size()
+                    + getBot1().getHand().size() + getBot2().getHand().size();
+            event.shoeRemaining = table.getDeck().remaining();
+            event.commit();
+        }
+    }
 
+    /**
+     * Formats a settlement as a message naming the result of every seat and of the dealer.
+     *
+     * @param settlement The settlement returned by {@link Table#settleRound()}.
+     * @return A string message indicating the result of the game.
+     */
+    public String formatResults(int settlement) {
         StringBuilder result = new StringBuilder();
 
         // Append messages indicating results for each player and dealer
-        if (tiePlayer) {
-            result.append(GameMenu.playerName).append(" has tied with the dealer. ");
-        } else if (playerWins) {
-            result.append(GameMenu.playerName).append(" wins. ");
-        } else {
-            result.append(GameMenu.playerName).append(" loses. ");
+        appendResult(result, GameMenu.playerName, Table.outcome(settlement, Table.PLAYER));
+        appendResult(result, "Bot 1", Table.outcome(settlement, Table.BOT1));
+        appendResult(result, "Bot 2", Table.outcome(settlement, Table.BOT2));
+
+        // The dealer wins if no seat has won or tied
+        boolean dealerWins = true;
+        for (int seat = 0; seat < Table.SEATS; seat++) {
+            Outcome outcome = Table.outcome(settlement, seat);
+            dealerWins &= outcome != Outcome.WIN && outcome != Outcome.PUSH;
         }
+        result.append(dealerWins ? "Dealer wins." : "Dealer loses.");
 
-        if (tieBot1) {
-            result.append("Bot 1 has tied with the dealer. ");
-        } else if (bot1Wins) {
-            result.append("Bot 1 wins. ");
+        return result.toString();
+    }
+
+    /**
+     * Appends the result of one seat to a message.
+     *
+     * @param result The message being built.
+     * @param name The name of the seat.
+     * @param outcome The outcome of the seat.
+     */
+    private static void appendResult(StringBuilder result, String name, Outcome outcome) {
+        if (outcome == Outcome.PUSH) {
+            result.append(name).append(" has tied with the dealer. ");
+        } else if (outcome == Outcome.WIN) {
+            result.append(name).append(" wins. ");
         } else {
-            result.append("Bot 1 loses. ");
+            result.append(name).append(" loses. ");
         }
+    }
+
+    /**
+     * Retrieves the rolling statistics of the human player for the rounds played since the start.
+     *
+     * @return The aggregator, readable from any thread.
+     */
+    public StatsAggregator getAggregator() {
+        return aggregator;
+    }
 
-        if (tieBot2) {
-            result.append("Bot 2 has tied with the dealer. ");
-        } else if (bot2Wins) {
-            result.append("Bot 2 wins. ");
+    /**
+     * Retrieves the bus publishing the events of the table.
+     *
+     * @return The event bus to subscribe listeners to.
+     */
+    public EventBus getEvents() {
+        return events;
+    }
+
+    /**
+     * Sets the store keeping the statistics of every profile across sessions.
+     *
+     * @param stats The statistics store, or null to keep the statistics in memory only.
+     */
+    public void setStatsStore(StatsStore stats) {
+        this.stats = stats;
+    }
+
+    /**
+     * Selects the profile of the human player: the statistics of the table become those stored for the profile,
+     * and every following round is recorded for it. Without a store, the statistics start from zero.
+     *
+     * @param profile The name of the player profile.
+     */
+    public void loadProfile(String profile) {
+        this.profile = profile;
+        if (history != null) {
+            history.setSeatName(Table.PLAYER, profile);
+        }
+        if (stats != null) {
+            stats.load(profile, table);
         } else {
-            result.append("Bot 2 loses. ");
+            table.resetStats();
         }
+    }
 
-        // Determine if the dealer wins or ties with all players
-        boolean dealerWins = !tiePlayer && !tieBot1 && !tieBot2 &&
-                !playerWins && !bot1Wins && !bot2Wins;
+    /**
+     * Opens a journal in the given directory and records every following round of the table in it,
+     * starting with the draw order of the current shoe if the table deals from a primitive {@link model.Shoe}.
+     *
+     * @param directory The directory holding the segments of the journal.
+     * @return The journal, subscribed to the events of the table.
+     * @throws IOException If the journal cannot be opened.
+     */
+    public RoundJournal openJournal(Path directory) throws IOException {
+        RoundJournal journal = new RoundJournal(directory);
+        if (table.getDeck().getShoe() != null) {
+            journal.shoeShuffled(table.getDeck().getShoe());
+        }
+        events.subscribe(journal);
+        return journal;
+    }
 
-        if (dealerWins) {
-            result.append("Dealer wins.");
-        } else {
-            if (!tiePlayer && !playerWins && !tieBot1 && !bot1Wins && !tieBot2 && !bot2Wins) {
-                result.append("Dealer has tied with all players.");
-            } else {
-                result.append("Dealer loses.");
-            }
+    /**
+     * Opens a hand history in the given directory and records every following hand of the table in it,
+     * under the name of the current profile for the human player.
+     *
+     * @param directory The directory holding the segments of the history.
+     * @return The history, subscribed to the events of the table.
+     * @throws IOException If the history cannot be opened.
+     */
+    public HandHistory openHistory(Path directory) throws IOException {
+        history = new HandHistory(directory);
+        if (profile != null) {
+            history.setSeatName(Table.PLAYER, profile);
         }
+        events.subscribe(history);
+        return history;
+    }
 
-        return result.toString();
+    /**
+     * Retrieves the table played by this controller.
+     *
+     * @return The table holding the game state and statistics.
+     */
+    public Table getTable() {
+        return table;
     }
 
     /**
@@ -220,7 +307,7 @@ public class GameLogic extends Observable {
      * @return The dealer player object.
      */
     public Player getDealer() {
-        return dealer;
+        return table.getDealer();
     }
 
     /**
@@ -228,8 +315,8 @@ public class GameLogic extends Observable {
      *
      * @return The human player object.
      */
-    public static Player getPlayer1() {
-        return player1;
+    public Player getPlayer1() {
+        return table.getPlayer1();
     }
 
     /**
@@ -237,8 +324,8 @@ public class GameLogic extends Observable {
      *
      * @return The bot player 1 object.
      */
-    public static Player getBot1() {
-        return bot1;
+    public Player getBot1() {
+        return table.getBot1();
     }
 
     /**
@@ -246,8 +333,8 @@ public class GameLogic extends Observable {
      *
      * @return The bot player 2 object.
      */
-    public static Player getBot2() {
-        return bot2;
+    public Player getBot2() {
+        return table.getBot2();
     }
 
     /**
@@ -256,7 +343,7 @@ public class GameLogic extends Observable {
      * @return The hidden card of the dealer.
      */
     public Card getHiddenCard() {
-        return hiddenCard;
+        return table.getHiddenCard();
     }
 
     /**
@@ -267,12 +354,26 @@ public class GameLogic extends Observable {
      */
     public Image getHiddenCardImage(boolean stayButtonEnabled) {
         if (stayButtonEnabled) {
-            return new ImageIcon(getClass().getResource("Cards/BACK.png")).getImage();
+            return CardImages.back();
         } else {
-            return new ImageIcon(getClass().getResource(getHiddenCard().getImagePath())).getImage();
+            return CardImages.face(getHiddenCard());
         }
     }
 
+    /**
+     * Returns the CardImageData of the hidden card of the dealer: its back while the "stay" button is enabled,
+     * its face afterwards.
+     *
+     * @param stayButtonEnabled Indicates if the "stay" button is enabled.
+     * @param x X-coordinate of the card image.
+     * @param y Y-coordinate of the card image.
+     * @return CardImageData of the hidden card.
+     */
+    public CardImageData getHiddenCardData(boolean stayButtonEnabled, int x, int y) {
+        int sprite = stayButtonEnabled ? CardImages.BACK : CardImages.sprite(getHiddenCard());
+        return new CardImageData(sprite, x, y);
+    }
+
     /**
      * Returns the initial value of the dealer's hand.
      * If stay button is enabled, returns the value of the second card;
@@ -325,10 +426,9 @@ public class GameLogic extends Observable {
         Player dealer = getDealer();
         for (int i = 1; i < dealer.getHand().size(); i++) {
             Card card = dealer.getHand().get(i);
-            Image cardImage = new ImageIcon(getClass().getResource(card.getImagePath())).getImage();
             int x = startX + (120 - 80) * (i - 1);
             int y = startY;
-            cardsData.add(new CardImageData(cardImage, x, y, 120, 170));
+            cardsData.add(new CardImageData(CardImages.sprite(card), x, y));
         }
         return cardsData;
     }
@@ -346,28 +446,44 @@ public class GameLogic extends Observable {
         List<CardImageData> cardsData = new ArrayList<>();
         for (int i = 0; i < player.getHand().size(); i++) {
             Card card = player.getHand().get(i);
-            Image cardImage;
-            if (hideFirst && i == 0) {
-                cardImage = new ImageIcon(getClass().getResource("Cards/BACK.png")).getImage();
-            } else {
-                cardImage = new ImageIcon(getClass().getResource(card.getImagePath())).getImage();
-            }
+            int sprite = hideFirst && i == 0 ? CardImages.BACK : CardImages.sprite(card);
             int x = startX + (120 - 80) * i;
             int y = startY;
-            cardsData.add(new CardImageData(cardImage, x, y, 120, 170));
+            cardsData.add(new CardImageData(sprite, x, y));
         }
         return cardsData;
     }
 
+    /**
+     * Plays full rounds in one call, for analytics: the deal as in {@link #startGame()},
+     * the player drawing until 17, then the turns of the dealer and both bots and the settlement.
+     * The rounds are played on a table of their own with the rules of the game, shuffled from a fast seeded generator
+     * since no one plays against it, so the hands on screen,
+     * the shoe of the game, its count trackers, the journal and the history are left untouched.
+     * Unlike the interactive actions, no event is published, nothing is printed,
+     * no object is built once the table exists and the statistics are not changed.
+     *
+     * @param rounds The number of rounds to play.
+     * @param settlements Receives the {@link Table#settleRound()} result of each round; at least {@code rounds} long.
+     * @param totals Receives the final sums of each round, in the order player, bot 1, bot 2, dealer, or null;
+     *               at least {@code rounds * Table.TOTALS_PER_ROUND} long.
+     * @throws IllegalArgumentException If an array is too short for the rounds, before any round is played.
+     */
+    public void playRounds(int rounds, int[] settlements, byte[] totals) {
+        if (batchTable == null) {
+            batchTable = new Table(Table.NUM_DECKS, Table.PENETRATION, new ShuffleSource(ShuffleSource.Algorithm.SPLITTABLE));
+        }
+        batchTable.playRounds(rounds, BotStrategy.DRAW_TO_SEVENTEEN, settlements, totals);
+    }
+
     /**
      * Performs the hit action for the player and triggers game logic if player's sum exceeds 21.
      */
     public void hitAction() {
+        long start = System.nanoTime();
         playerHit();
-        if (player1.getSum() > 21 || player1.getSum() == 21 ) {
-            dealerTurn();
-            bot1Turn();
-            bot2Turn();
+        if (getPlayer1().getSum() > 21 || getPlayer1().getSum() == 21 ) {
+            finishRound();
             
         
             System.out.println("Stay action performed");
@@ -375,18 +491,40 @@ public class GameLogic extends Observable {
         
         
         System.out.println("Hit action performed");
+        HIT_ACTION.recordSince(start);
     }
 
     /**
      * Performs the stay action for all bots and triggers game logic.
      */
     public void stayAction() {
-        dealerTurn();
-        bot1Turn();
-        bot2Turn();
+        long start = System.nanoTime();
+        finishRound();
         
         
         System.out.println("Stay action performed");
+        STAY_ACTION.recordSince(start);
+    }
+
+    /**
+     * Ends the player's turn, lets the dealer and the bots play,
+     * then records the round in the statistics once and publishes the settlement.
+     */
+    private void finishRound() {
+        table.endTurn(Table.PLAYER);
+        dealerTurn();
+        bot1Turn();
+        bot2Turn();
+        RoundEvent event = new RoundEvent();
+        event.begin();
+        int settlement = table.settleRound();
+        commitRound(event, "finishRound");
+        table.recordResult(settlement);
+        aggregator.record(settlement, getPlayer1().getSum(), getDealer().getSum());
+        if (stats != null && profile != null) {
+            stats.record(profile, settlement);
+        }
+        events.roundSettled(settlement);
     }
 
     /**
@@ -401,7 +539,8 @@ public class GameLogic extends Observable {
     }
 
     /**
-     * Represents data associated with a playing card image.
+     * Represents data associated with a playing card image:
+     * the rectangle of the image to draw and where to draw it.
      */
     public static class CardImageData {
         private Image image;
@@ -409,6 +548,10 @@ public class GameLogic extends Observable {
         private int y;
         private int width;
         private int height;
+        private int sourceX;      // Left edge of the drawn rectangle in the image
+        private int sourceY;      // Top edge of the drawn rectangle in the image
+        private int sourceWidth;  // Width of the drawn rectangle in the image
+        private int sourceHeight; // Height of the drawn rectangle in the image
 
         /**
          * Constructs CardImageData object.
@@ -425,6 +568,27 @@ public class GameLogic extends Observable {
             this.y = y;
             this.width = width;
             this.height = height;
+            this.sourceWidth = image.getWidth(null);
+            this.sourceHeight = image.getHeight(null);
+        }
+
+        /**
+         * Constructs CardImageData object drawing a sprite of the card atlas at its own size.
+         *
+         * @param sprite The index of the sprite, a card ordinal or {@link CardImages#BACK}.
+         * @param x     X-coordinate of the card image.
+         * @param y     Y-coordinate of the card image.
+         */
+        public CardImageData(int sprite, int x, int y) {
+            this.image = CardImages.atlas();
+            this.x = x;
+            this.y = y;
+            this.width = CardAtlas.CARD_WIDTH;
+            this.height = CardAtlas.CARD_HEIGHT;
+            this.sourceX = CardImages.spriteX(sprite);
+            this.sourceY = CardImages.spriteY(sprite);
+            this.sourceWidth = CardAtlas.CARD_WIDTH;
+            this.sourceHeight = CardAtlas.CARD_HEIGHT;
         }
 
         /**
@@ -471,6 +635,42 @@ public class GameLogic extends Observable {
         public int getHeight() {
             return height;
         }
+
+        /**
+         * Retrieves the left edge of the drawn rectangle in the image.
+         *
+         * @return X-coordinate in the image.
+         */
+        public int getSourceX() {
+            return sourceX;
+        }
+
+        /**
+         * Retrieves the top edge of the drawn rectangle in the image.
+         *
+         * @return Y-coordinate in the image.
+         */
+        public int getSourceY() {
+            return sourceY;
+        }
+
+        /**
+         * Retrieves the width of the drawn rectangle in the image; the image is scaled if it differs from the width.
+         *
+         * @return Width in the image.
+         */
+        public int getSourceWidth() {
+            return sourceWidth;
+        }
+
+        /**
+         * Retrieves the height of the drawn rectangle in the image; the image is scaled if it differs from the height.
+         *
+         * @return Height in the image.
+         */
+        public int getSourceHeight() {
+            return sourceHeight;
+        }
     }
     
 }
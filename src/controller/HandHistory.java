@@ -0,0 +1,772 @@
+package controller;
+
+import model.Card;
+import model.Shoe;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * The HandHistory stores one row per seat and round played: the round number, the player,
+ * the starting total and whether it was soft, whether the seat hit, the dealer's upcard, the final total
+ * and the outcome. Subscribe it to the {@link EventBus} of a table to record the rounds.
+ * <p>
+ * Rows are kept in memory until {@link #SEGMENT_ROWS} are collected or {@link #SEAL_MILLIS} have passed
+ * since the last seal, then sealed into a segment file
+ * holding every column contiguously in little-endian order, followed by a bitmap per value of the player, the starting total,
+ * the dealer's upcard, the outcome and the hit flag. Queries map the segments and AND the bitmaps of their
+ * filter word by word, so they read a few bits per row whatever the number of rounds recorded.
+ * A segment is written to a temporary file, forced and renamed into place, after the player names it uses.
+ * Rows not sealed yet are lost if the process dies; {@link #close()} seals them.
+ * A segment that does not match its header is skipped with a warning when the history is opened.
+ */
+public class HandHistory implements GameListener, AutoCloseable {
+
+    public static final int SEGMENT_ROWS = 1 << 16;  // Rows in a full segment
+    public static final long SEAL_MILLIS = 60_000;   // Longest time rows are kept in memory once a round ends
+    private static final int INITIAL_ROWS = 1 << 12; // Rows kept in memory before the columns grow
+    private static final String PREFIX = "hands-";   // Prefix of the segment file names
+    private static final String SUFFIX = ".segment"; // Suffix of the segment file names
+    private static final String TEMPORARY = ".tmp";  // Suffix added to a segment file while it is written
+    private static final String PLAYERS = "players.dict"; // File holding the player names in id order
+    private static final int MAGIC = 0x4A424A48;     // First int of a segment, "JBJH"
+    private static final int HEADER_SIZE = 12;       // Magic, rows and number of player ids of a segment
+    private static final int ROW_BYTES = 8 + 4 + 5;  // Bytes of one row across all columns
+    private static final int SOFT = 1, HIT = 2;      // Bits of the flags column
+    static final int PLAYER = 0, START = 1, UPCARD = 2, OUTCOME = 3, HITS = 4; // Indexed columns
+    private static final int[] FIXED_VALUES = {0, 32, 12, 4, 2}; // Values of each indexed column, players aside
+
+    private final Path directory;  // Directory holding the segments and the player names
+    private final List<Segment> segments = new ArrayList<>(); // The sealed segments, mapped
+    private final Map<String, Integer> playerIds = new HashMap<>(); // Id of every player name
+    private final List<String> playerNames = new ArrayList<>();     // Name of every player id
+    private final FileChannel playersChannel;  // The file of the player names, forced before every seal
+    private final DataOutputStream playersOut; // Appends new player names
+    private int nextSegment;                   // Index of the next segment file
+    private long sealed = System.currentTimeMillis(); // Time of the last seal, or of the opening
+
+    // Columns of the rows not sealed yet, grown up to SEGMENT_ROWS
+    private long[] rounds = new long[INITIAL_ROWS];
+    private int[] players = new int[INITIAL_ROWS];
+    private byte[] starts = new byte[INITIAL_ROWS];
+    private byte[] flags = new byte[INITIAL_ROWS];
+    private byte[] upcards = new byte[INITIAL_ROWS];
+    private byte[] finals = new byte[INITIAL_ROWS];
+    private byte[] outcomes = new byte[INITIAL_ROWS];
+    private int rows;                // Number of rows not sealed yet
+    private long round;              // Number of the next round
+
+    // State of the round being played, by seat
+    private final String[] seatNames = {"Player", "Bot 1", "Bot 2"};
+    private final int[] sums = new int[Table.SEATS + 1];      // Best total of each seat, dealer last
+    private final int[] softAces = new int[Table.SEATS + 1];  // Aces still counted as 11 by each seat
+    private final int[] cardCounts = new int[Table.SEATS + 1];
+    private final int[] startTotals = new int[Table.SEATS];
+    private final boolean[] startSoft = new boolean[Table.SEATS];
+    private int upcard;              // Value of the dealer's upcard
+    private boolean dealt;           // Whether the deal of the round was seen whole
+
+    /**
+     * Filter selecting rows by any of the indexed columns; a column left unset matches every row.
+     */
+    public static class Filter {
+        private String player;
+        private final int[] values = {-1, -1, -1, -1, -1}; // Required value of each indexed column, or -1
+
+        /**
+         * Selects the rows of one player.
+         *
+         * @param name The name of the player or bot.
+         * @return This filter.
+         */
+        public Filter player(String name) {
+            this.player = name;
+            return this;
+        }
+
+        /**
+         * Selects the rows with a starting total.
+         *
+         * @param total The total of the first two cards, aces counted as 11 when possible.
+         * @return This filter.
+         */
+        public Filter startingTotal(int total) {
+            values[START] = total;
+            return this;
+        }
+
+        /**
+         * Selects the rows played against a dealer's upcard.
+         *
+         * @param value The value of the upcard, from 2 to 11 for an ace.
+         * @return This filter.
+         */
+        public Filter upcard(int value) {
+            values[UPCARD] = value;
+            return this;
+        }
+
+        /**
+         * Selects the rows with an outcome.
+         *
+         * @param outcome The outcome of the seat.
+         * @return This filter.
+         */
+        public Filter outcome(Outcome outcome) {
+            values[OUTCOME] = outcome.ordinal();
+            return this;
+        }
+
+        /**
+         * Selects the rows where the seat hit at least once, or never did.
+         *
+         * @param hit true for the seats that hit.
+         * @return This filter.
+         */
+        public Filter hit(boolean hit) {
+            values[HITS] = hit ? 1 : 0;
+            return this;
+        }
+    }
+
+    /**
+     * One row of the history.
+     */
+    public static class Hand {
+        public final long round;        // Number of the round
+        public final String player;     // Name of the player or bot
+        public final int startingTotal; // Total of the first two cards
+        public final boolean soft;      // Whether the starting total counted an ace as 11
+        public final boolean hit;       // Whether the seat hit at least once
+        public final int upcard;        // Value of the dealer's upcard
+        public final int finalTotal;    // Total at the end of the seat's turn
+        public final Outcome outcome;   // Outcome of the seat
+
+        Hand(long round, String player, int flags, int startingTotal, int upcard, int finalTotal, int outcome) {
+            this.round = round;
+            this.player = player;
+            this.startingTotal = startingTotal;
+            this.soft = (flags & SOFT) != 0;
+            this.hit = (flags & HIT) != 0;
+            this.upcard = upcard;
+            this.finalTotal = finalTotal;
+            this.outcome = Outcome.of(outcome);
+        }
+
+        @Override
+        public String toString() {
+            return "Round " + round + ": " + player + " " + (soft ? "soft " : "") + startingTotal
+                    + (hit ? " hit" : " stood") + " against " + upcard + ", ended on " + finalTotal + ", " + outcome;
+        }
+    }
+
+    /**
+     * A sealed segment mapped in memory.
+     */
+    private static class Segment {
+        final MappedByteBuffer buffer; // The segment file
+        final int rows;                // Number of rows
+        final int playerValues;        // Number of player ids with a bitmap
+        final int words;               // Longs in each bitmap
+        final int[] bitmapOffsets = new int[FIXED_VALUES.length]; // Offset of the first bitmap of each indexed column
+
+        /**
+         * Maps the columns and the bitmaps of a segment, checking them against its header.
+         *
+         * @param buffer The segment file.
+         * @param players The number of player names known.
+         * @throws IOException If the segment is not a hand history segment, is truncated,
+         *         or uses player ids with no name.
+         */
+        Segment(MappedByteBuffer buffer, int players) throws IOException {
+            this.buffer = buffer;
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not a hand history segment");
+            }
+            rows = buffer.getInt(4);
+            playerValues = buffer.getInt(8);
+            if (rows <= 0 || rows > (Integer.MAX_VALUE - HEADER_SIZE) / ROW_BYTES || playerValues < 0 || playerValues > players) {
+                throw new IOException("Damaged header: " + rows + " rows, " + playerValues + " players");
+            }
+            words = (rows + 63) >>> 6;
+            long offset = bitmapStart(rows);
+            for (int column = 0; column < bitmapOffsets.length; column++) {
+                bitmapOffsets[column] = (int) offset;
+                offset += (long) (column == PLAYER ? playerValues : FIXED_VALUES[column]) * words * 8;
+            }
+            if (buffer.capacity() != offset) {
+                throw new IOException("Expected " + offset + " bytes, found " + buffer.capacity());
+            }
+        }
+
+        /**
+         * Returns the offset of the bitmap of a column value, or -1 if no row can have this value.
+         */
+        int bitmap(int column, int value) {
+            int values = column == PLAYER ? playerValues : FIXED_VALUES[column];
+            return value < 0 || value >= values ? -1 : bitmapOffsets[column] + value * words * 8;
+        }
+
+        long round(int row) {
+            return buffer.getLong(HEADER_SIZE + row * 8);
+        }
+
+        int player(int row) {
+            return buffer.getInt(HEADER_SIZE + rows * 8 + row * 4);
+        }
+
+        int column(int index, int row) {
+            return buffer.get(HEADER_SIZE + rows * 12 + index * rows + row);
+        }
+    }
+
+    /**
+     * Returns the offset of the bitmaps of a segment, after the columns padded to a multiple of 8.
+     */
+    private static int bitmapStart(int rows) {
+        return (HEADER_SIZE + rows * ROW_BYTES + 7) & ~7;
+    }
+
+    /**
+     * Opens the history in the given directory, mapping the segments sealed by earlier sessions.
+     *
+     * @param directory The directory holding the segments, created if needed.
+     * @throws IOException If the history cannot be read.
+     */
+    public HandHistory(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+        Path names = directory.resolve(PLAYERS);
+        if (Files.exists(names)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(names)))) {
+                while (true) {
+                    String name = in.readUTF();
+                    playerIds.put(name, playerNames.size());
+                    playerNames.add(name);
+                }
+            } catch (EOFException e) {
+                // Every name was read
+            }
+        }
+        playersChannel = FileChannel.open(names, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        playersOut = new DataOutputStream(Channels.newOutputStream(playersChannel));
+
+        Path[] files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(path -> path.getFileName().toString().startsWith(PREFIX)).sorted().toArray(Path[]::new);
+        }
+        for (Path path : files) {
+            String name = path.getFileName().toString();
+            if (name.endsWith(SUFFIX + TEMPORARY)) {
+                Files.delete(path);  // A segment left unsealed by a crash, its rows are lost
+                continue;
+            }
+            if (!name.endsWith(SUFFIX)) {
+                continue;
+            }
+            try {
+                nextSegment = Math.max(nextSegment,
+                        Integer.parseInt(name.substring(PREFIX.length(), name.length() - SUFFIX.length())) + 1);
+            } catch (NumberFormatException e) {
+                // Not named by the history, its index is not reused anyway
+            }
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                segments.add(new Segment(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), playerNames.size()));
+            } catch (IOException e) {
+                System.err.println("Skipping hand history segment " + path + ": " + e.getMessage());
+            }
+        }
+        if (!segments.isEmpty()) {
+            Segment last = segments.get(segments.size() - 1);
+            round = last.round(last.rows - 1) + 1;
+        }
+    }
+
+    /**
+     * Names the player of a seat in the rows recorded from now on.
+     *
+     * @param seat The seat: {@link Table#PLAYER}, {@link Table#BOT1} or {@link Table#BOT2}.
+     * @param name The name of the player.
+     */
+    public synchronized void setSeatName(int seat, String name) {
+        seatNames[seat] = name;
+    }
+
+    @Override
+    public void shoeShuffled(Shoe shoe) {
+        resetRound();
+    }
+
+    /**
+     * Checks that the deal was seen whole: a round left unsettled before it, or a history
+     * subscribed in the middle of a round, leaves the seats with other than two cards.
+     */
+    @Override
+    public synchronized void roundStarted() {
+        dealt = true;
+        for (int seat = 0; seat <= Table.SEATS; seat++) {
+            dealt &= cardCounts[seat] == 2;
+        }
+    }
+
+    @Override
+    public synchronized void cardDealt(int seat, Card card) {
+        int sum = sums[seat] + card.getValue();
+        if (card.isAce()) {
+            softAces[seat]++;
+        }
+        if (sum > 21 && softAces[seat] > 0) {
+            sum -= 10;
+            softAces[seat]--;
+        }
+        sums[seat] = sum;
+        if (++cardCounts[seat] == 2) {
+            if (seat == Table.DEALER) {
+                upcard = card.getValue();  // The card dealt after the hidden card
+            } else {
+                startTotals[seat] = sum;
+                startSoft[seat] = softAces[seat] > 0;
+            }
+        }
+    }
+
+    /**
+     * Appends a row for every seat of the round, unless its deal was not seen whole.
+     *
+     * @param settlement The settlement returned by {@link Table#settleRound()}.
+     */
+    @Override
+    public synchronized void roundSettled(int settlement) {
+        if (dealt) {
+            for (int seat = 0; seat < Table.SEATS; seat++) {
+                int rowFlags = (startSoft[seat] ? SOFT : 0) | (cardCounts[seat] > 2 ? HIT : 0);
+                append(round, playerId(seatNames[seat]), startTotals[seat], rowFlags, upcard, sums[seat],
+                        Table.outcome(settlement, seat).ordinal());
+            }
+            round++;
+            if (rows > 0 && System.currentTimeMillis() - sealed >= SEAL_MILLIS) {
+                try {
+                    seal();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+        resetRound();
+    }
+
+    /**
+     * Forgets the cards of the round being played.
+     */
+    private synchronized void resetRound() {
+        dealt = false;
+        for (int seat = 0; seat <= Table.SEATS; seat++) {
+            sums[seat] = 0;
+            softAces[seat] = 0;
+            cardCounts[seat] = 0;
+        }
+        for (int seat = 0; seat < Table.SEATS; seat++) {
+            startTotals[seat] = 0;
+        }
+    }
+
+    /**
+     * Returns the id of a player name, recording the name if it is new.
+     */
+    private int playerId(String name) {
+        Integer id = playerIds.get(name);
+        if (id == null) {
+            id = playerNames.size();
+            try {
+                playersOut.writeUTF(name);
+                playersOut.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            playerIds.put(name, id);
+            playerNames.add(name);
+        }
+        return id;
+    }
+
+    /**
+     * Appends one row, sealing the rows into a segment once there are {@link #SEGMENT_ROWS} of them.
+     */
+    synchronized void append(long rowRound, int player, int start, int rowFlags, int rowUpcard, int finalTotal, int outcome) {
+        if (rows == rounds.length) {
+            int capacity = Math.min(rows * 2, SEGMENT_ROWS);
+            rounds = Arrays.copyOf(rounds, capacity);
+            players = Arrays.copyOf(players, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            flags = Arrays.copyOf(flags, capacity);
+            upcards = Arrays.copyOf(upcards, capacity);
+            finals = Arrays.copyOf(finals, capacity);
+            outcomes = Arrays.copyOf(outcomes, capacity);
+        }
+        rounds[rows] = rowRound;
+        players[rows] = player;
+        starts[rows] = (byte) start;
+        flags[rows] = (byte) rowFlags;
+        upcards[rows] = (byte) rowUpcard;
+        finals[rows] = (byte) finalTotal;
+        outcomes[rows] = (byte) outcome;
+        if (++rows == SEGMENT_ROWS) {
+            try {
+                seal();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Writes the rows kept in memory to a new segment with its bitmaps, then maps it.
+     * The player names are forced first, then the segment is written to a temporary file, forced
+     * and renamed into place, so a crash never leaves a partial segment or a player id with no name.
+     *
+     * @throws IOException If the segment cannot be written.
+     */
+    private void seal() throws IOException {
+        playersChannel.force(true);
+        int words = (rows + 63) >>> 6;
+        int playerValues = playerNames.size();
+        long[][][] bitmaps = new long[FIXED_VALUES.length][][];
+        for (int column = 0; column < bitmaps.length; column++) {
+            bitmaps[column] = new long[column == PLAYER ? playerValues : FIXED_VALUES[column]][words];
+        }
+        for (int row = 0; row < rows; row++) {
+            long bit = 1L << row;
+            int word = row >>> 6;
+            bitmaps[PLAYER][players[row]][word] |= bit;
+            bitmaps[START][starts[row]][word] |= bit;
+            bitmaps[UPCARD][upcards[row]][word] |= bit;
+            bitmaps[OUTCOME][outcomes[row]][word] |= bit;
+            bitmaps[HITS][(flags[row] & HIT) != 0 ? 1 : 0][word] |= bit;
+        }
+
+        int size = bitmapStart(rows);
+        for (long[][] column : bitmaps) {
+            size += column.length * words * 8;
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(size).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(rows).putInt(playerValues);
+        for (int row = 0; row < rows; row++) {
+            buffer.putLong(rounds[row]);
+        }
+        for (int row = 0; row < rows; row++) {
+            buffer.putInt(players[row]);
+        }
+        buffer.put(starts, 0, rows).put(flags, 0, rows).put(upcards, 0, rows).put(finals, 0, rows).put(outcomes, 0, rows);
+        buffer.position(bitmapStart(rows));
+        for (long[][] column : bitmaps) {
+            for (long[] bitmap : column) {
+                buffer.asLongBuffer().put(bitmap);
+                buffer.position(buffer.position() + words * 8);
+            }
+        }
+        buffer.flip();
+
+        Path path = directory.resolve(String.format("%s%08d%s", PREFIX, nextSegment, SUFFIX));
+        Path temporary = directory.resolve(path.getFileName() + TEMPORARY);
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE);
+        StatsStore.forceDirectory(directory);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            segments.add(new Segment(channel.map(FileChannel.MapMode.READ_ONLY, 0, size), playerValues));
+        }
+        nextSegment++;
+        rows = 0;
+        sealed = System.currentTimeMillis();
+    }
+
+    /**
+     * Counts the rows matching a filter.
+     *
+     * @param filter The filter selecting the rows.
+     * @return The number of matching rows.
+     */
+    public synchronized long count(Filter filter) {
+        return search(filter, Long.MAX_VALUE, null);
+    }
+
+    /**
+     * Returns the rows matching a filter, in the order they were recorded.
+     *
+     * @param filter The filter selecting the rows.
+     * @param limit The largest number of rows returned.
+     * @return The matching rows, at most {@code limit}.
+     */
+    public synchronized List<Hand> select(Filter filter, int limit) {
+        List<Hand> hands = new ArrayList<>();
+        search(filter, limit, (segment, row) -> hands.add(segment == null
+                ? new Hand(rounds[row], playerNames.get(players[row]), flags[row], starts[row], upcards[row], finals[row], outcomes[row])
+                : new Hand(segment.round(row), playerNames.get(segment.player(row)), segment.column(1, row),
+                        segment.column(0, row), segment.column(2, row), segment.column(3, row), segment.column(4, row))));
+        return hands;
+    }
+
+    /**
+     * Computes the win rate of every starting total among the rows matching a filter.
+     *
+     * @param filter The filter selecting the rows; its starting total and outcome are ignored.
+     * @return The fraction of rows won by starting total, indexed from 0 to 21, NaN for totals never seen.
+     */
+    public synchronized double[] winRateByStartingTotal(Filter filter) {
+        double[] rates = new double[22];
+        long[] hands = new long[rates.length];
+        long[] wins = new long[rates.length];
+        int[] values = resolve(filter);
+        if (values != null) {
+            values[START] = -1;
+            values[OUTCOME] = -1;
+            int[] offsets = new int[values.length];
+            long[] matched = new long[0]; // Words of the rows of a segment matching the filter
+            long[] won = new long[0];     // Words of the matching rows won
+            for (Segment segment : segments) {
+                int predicates = predicates(segment, values, offsets);
+                if (predicates < 0) {
+                    continue;
+                }
+                if (matched.length < segment.words) {
+                    matched = new long[segment.words];
+                    won = new long[segment.words];
+                }
+                int winOffset = segment.bitmap(OUTCOME, Outcome.WIN.ordinal());
+                for (int word = 0; word < segment.words; word++) {
+                    matched[word] = match(segment, word, offsets, predicates);
+                    won[word] = matched[word] & segment.buffer.getLong(winOffset + word * 8);
+                }
+                // One bitmap at a time, so every bitmap is read sequentially
+                for (int total = 0; total < rates.length; total++) {
+                    int startOffset = segment.bitmap(START, total);
+                    for (int word = 0; word < segment.words; word++) {
+                        long start = segment.buffer.getLong(startOffset + word * 8);
+                        hands[total] += Long.bitCount(matched[word] & start);
+                        wins[total] += Long.bitCount(won[word] & start);
+                    }
+                }
+            }
+            for (int row = 0; row < rows; row++) {
+                if (matches(values, row)) {
+                    hands[starts[row]]++;
+                    if (outcomes[row] == Outcome.WIN.ordinal()) {
+                        wins[starts[row]]++;
+                    }
+                }
+            }
+        }
+        for (int total = 0; total < rates.length; total++) {
+            rates[total] = hands[total] == 0 ? Double.NaN : (double) wins[total] / hands[total];
+        }
+        return rates;
+    }
+
+    /**
+     * Receives the rows found by {@link #search}.
+     */
+    private interface RowVisitor {
+        /**
+         * @param segment The sealed segment of the row, or null for a row not sealed yet.
+         * @param row The index of the row in its segment.
+         */
+        void visit(Segment segment, int row);
+    }
+
+    /**
+     * Visits the rows matching a filter: the bitmaps of the sealed segments are ANDed word by word,
+     * and the rows not sealed yet are scanned.
+     *
+     * @param filter The filter selecting the rows.
+     * @param limit The largest number of rows visited.
+     * @param visitor The visitor receiving the rows, or null to count them a word of bitmap at a time.
+     * @return The number of rows found.
+     */
+    private long search(Filter filter, long limit, RowVisitor visitor) {
+        int[] values = resolve(filter);
+        if (values == null) {
+            return 0;
+        }
+        long found = 0;
+        int[] offsets = new int[values.length];
+        for (Segment segment : segments) {
+            int predicates = predicates(segment, values, offsets);
+            for (int word = 0; word < segment.words && predicates >= 0 && found < limit; word++) {
+                long bits = match(segment, word, offsets, predicates);
+                if (visitor == null) {
+                    found += Long.bitCount(bits);
+                    continue;
+                }
+                while (bits != 0 && found < limit) {
+                    visitor.visit(segment, (word << 6) + Long.numberOfTrailingZeros(bits));
+                    bits &= bits - 1;
+                    found++;
+                }
+            }
+        }
+        for (int row = 0; row < rows && found < limit; row++) {
+            if (matches(values, row)) {
+                if (visitor != null) {
+                    visitor.visit(null, row);
+                }
+                found++;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Returns the value required for every indexed column by a filter, the player name replaced by its id.
+     *
+     * @param filter The filter selecting the rows.
+     * @return The required values, -1 for any value, or null if the player was never recorded.
+     */
+    private int[] resolve(Filter filter) {
+        int[] values = filter.values.clone();
+        if (filter.player != null) {
+            Integer id = playerIds.get(filter.player);
+            if (id == null) {
+                return null;
+            }
+            values[PLAYER] = id;
+        }
+        return values;
+    }
+
+    /**
+     * Finds the bitmaps of a segment holding the required column values.
+     *
+     * @param segment The sealed segment.
+     * @param values The required value of every indexed column, or -1.
+     * @param offsets Receives the offsets of the bitmaps to AND.
+     * @return The number of bitmaps, or -1 if no row of the segment can match.
+     */
+    private static int predicates(Segment segment, int[] values, int[] offsets) {
+        int predicates = 0;
+        for (int column = 0; column < values.length; column++) {
+            if (values[column] >= 0) {
+                int offset = segment.bitmap(column, values[column]);
+                if (offset < 0) {
+                    return -1;
+                }
+                offsets[predicates++] = offset;
+            }
+        }
+        return predicates;
+    }
+
+    /**
+     * ANDs one word of the bitmaps of a filter.
+     *
+     * @param segment The sealed segment.
+     * @param word The index of the word.
+     * @param offsets The offsets of the bitmaps.
+     * @param predicates The number of bitmaps.
+     * @return The bits of the rows of the word matching every bitmap.
+     */
+    private static long match(Segment segment, int word, int[] offsets, int predicates) {
+        long bits = word == segment.words - 1 && (segment.rows & 63) != 0 ? (1L << segment.rows) - 1 : -1L;
+        for (int p = 0; p < predicates && bits != 0; p++) {
+            bits &= segment.buffer.getLong(offsets[p] + word * 8);
+        }
+        return bits;
+    }
+
+    /**
+     * Checks a row not sealed yet against the required column values.
+     */
+    private boolean matches(int[] values, int row) {
+        return (values[PLAYER] < 0 || values[PLAYER] == players[row])
+                && (values[START] < 0 || values[START] == starts[row])
+                && (values[UPCARD] < 0 || values[UPCARD] == upcards[row])
+                && (values[OUTCOME] < 0 || values[OUTCOME] == outcomes[row])
+                && (values[HITS] < 0 || values[HITS] == ((flags[row] & HIT) != 0 ? 1 : 0));
+    }
+
+    /**
+     * Retrieves the number of rounds recorded, including those of earlier sessions.
+     *
+     * @return The number of the next round.
+     */
+    public synchronized long getRounds() {
+        return round;
+    }
+
+    /**
+     * Seals the rows kept in memory into a last segment and closes the history.
+     *
+     * @throws IOException If the segment cannot be written.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (rows > 0) {
+            seal();
+        }
+        playersOut.close();
+    }
+
+    /**
+     * Runs a query from the command line and prints the matching rows, their count,
+     * the win rate by starting total and the time taken.
+     *
+     * @param args The directory of the history, then any of player=NAME, start=TOTAL, upcard=VALUE,
+     *             outcome=WIN|LOSE|PUSH|BUST, hit and stand.
+     * @throws IOException If the history cannot be read.
+     */
+    public static void main(String[] args) throws IOException {
+        try (HandHistory history = new HandHistory(Path.of(args[0]))) {
+            Filter filter = new Filter();
+            for (int i = 1; i < args.length; i++) {
+                String[] option = args[i].split("=", 2);
+                switch (option[0]) {
+                    case "player": filter.player(option[1]); break;
+                    case "start": filter.startingTotal(Integer.parseInt(option[1])); break;
+                    case "upcard": filter.upcard(Integer.parseInt(option[1])); break;
+                    case "outcome": filter.outcome(Outcome.valueOf(option[1])); break;
+                    case "hit": filter.hit(true); break;
+                    case "stand": filter.hit(false); break;
+                    default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+            }
+            long start = System.nanoTime();
+            List<Hand> hands = history.select(filter, 20);
+            long count = history.count(filter);
+            double[] rates = history.winRateByStartingTotal(filter);
+            long elapsed = System.nanoTime() - start;
+
+            hands.forEach(System.out::println);
+            System.out.println("Rows: " + count + " of " + history.getRounds() * Table.SEATS);
+            for (int total = 0; total < rates.length; total++) {
+                if (!Double.isNaN(rates[total])) {
+                    System.out.printf("Win rate starting on %2d: %.3f%n", total, rates[total]);
+                }
+            }
+            System.out.printf("Queried in %.1f ms%n", elapsed / 1e6);
+        }
+    }
+}
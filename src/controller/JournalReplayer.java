@@ -0,0 +1,199 @@
+package controller;
+
+import model.Card;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+
+/**
+ * The JournalReplayer reads the segments written by a {@link RoundJournal} and publishes every round
+ * to a {@link GameListener} as if it were played again: the cards dealt to each seat, the start of the round
+ * once the deal is complete and the settlement. The segments are mapped in memory and every record is
+ * checked against its CRC; nothing is allocated per record.
+ * A damaged record is skipped with the rest of its round, like {@link RoundJournal} does when it is reopened:
+ * records torn at the end of the journal are ignored, and those followed by a complete group
+ * are counted, see {@link #getDamagedRecords()}.
+ */
+public class JournalReplayer {
+
+    private static final int DEAL_CARDS = 8; // Cards dealt by Table.startRound
+
+    private final Path directory;  // Directory holding the segments
+    private long damaged;          // Damaged records followed by a complete group in the last replay
+
+    /**
+     * Constructs a replayer for the journal in the given directory.
+     *
+     * @param directory The directory holding the segments.
+     */
+    public JournalReplayer(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Checks that a record is written and matches its CRC.
+     *
+     * @param buffer The mapped segment.
+     * @param position The offset of the record.
+     * @param crc The checksum used for the check.
+     * @return true if the record is complete and intact.
+     */
+    static boolean isValid(ByteBuffer buffer, int position, CRC32C crc) {
+        if (position + RoundJournal.RECORD_SIZE > buffer.limit() || buffer.get(position + 4) == 0) {
+            return false;
+        }
+        int limit = buffer.limit();
+        crc.reset();
+        buffer.limit(position + RoundJournal.RECORD_SIZE).position(position + 4);
+        crc.update(buffer);
+        buffer.limit(limit).position(0);
+        return (int) crc.getValue() == buffer.getInt(position);
+    }
+
+    /**
+     * Publishes every complete round of the journal to a listener, in the order they were played.
+     *
+     * @param listener The listener receiving the rounds.
+     * @return The number of rounds replayed.
+     * @throws IOException If a segment cannot be read.
+     */
+    public long replay(GameListener listener) throws IOException {
+        Path[] segments = RoundJournal.segments(directory);
+        CRC32C crc = new CRC32C();
+        byte[] cards = new byte[64];  // The card bytes of the round being read
+        int cardCount = 0;
+        boolean inRound = false;      // Whether the group being read is an intact round
+        boolean intact = false;       // Whether the records of the group being read are all valid
+        int skipped = 0;              // Damaged records since the last complete group
+        long rounds = 0;
+        damaged = 0;
+
+        for (int s = 0; s < segments.length; s++) {
+            try (FileChannel channel = FileChannel.open(segments[s], StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                for (int position = 0; position + RoundJournal.RECORD_SIZE <= buffer.limit();
+                     position += RoundJournal.RECORD_SIZE) {
+                    if (!isValid(buffer, position, crc)) {
+                        inRound = false;
+                        intact = false;
+                        skipped++;
+                        continue;
+                    }
+                    byte type = buffer.get(position + 4);
+                    if (type == RoundJournal.CONTINUATION && !intact) {
+                        skipped++; // The head of the group is damaged
+                        continue;
+                    }
+                    intact = true;
+                    if (type == RoundJournal.ROUND) {
+                        inRound = true;
+                        cardCount = 0;
+                    } else if (type == RoundJournal.SHOE) {
+                        inRound = false;
+                    }
+                    if (buffer.get(position + 7) == 0) {
+                        damaged += skipped;
+                        skipped = 0;
+                        intact = false;
+                    }
+                    if (!inRound) {
+                        continue;
+                    }
+                    int count = buffer.get(position + 5);
+                    if (cardCount + count > cards.length) {
+                        cards = Arrays.copyOf(cards, cards.length * 2);
+                    }
+                    buffer.get(position + RoundJournal.PAYLOAD_OFFSET, cards, cardCount, count);
+                    cardCount += count;
+                    if (buffer.get(position + 7) == 0) {
+                        publish(listener, cards, cardCount, buffer.get(position + 6));
+                        inRound = false;
+                        rounds++;
+                    }
+                }
+            }
+        }
+        return rounds;
+    }
+
+    /**
+     * Retrieves the number of damaged records skipped by the last replay.
+     * Records torn at the end of the journal are not counted.
+     *
+     * @return The number of damaged records followed by a complete group.
+     */
+    public long getDamagedRecords() {
+        return damaged;
+    }
+
+    /**
+     * Publishes the cards and the settlement of one round.
+     *
+     * @param listener The listener receiving the round.
+     * @param cards The card bytes of the round.
+     * @param cardCount The number of card bytes.
+     * @param settlement The settlement of the round.
+     */
+    private static void publish(GameListener listener, byte[] cards, int cardCount, int settlement) {
+        for (int i = 0; i < cardCount; i++) {
+            int card = cards[i] & 0xFF;
+            listener.cardDealt(card >>> RoundJournal.SEAT_SHIFT, Card.of(card & RoundJournal.CODE_MASK));
+            if (i == DEAL_CARDS - 1) {
+                listener.roundStarted();
+            }
+        }
+        listener.roundSettled(settlement);
+    }
+
+    /**
+     * Rebuilds the state of a table from a journal: the statistics of the human player
+     * count every round of the journal, and the hands are those of the last round.
+     *
+     * @param directory The directory holding the segments.
+     * @param table The table to rebuild; its statistics are replaced.
+     * @return The number of rounds replayed.
+     * @throws IOException If the journal cannot be read.
+     */
+    public static long restore(Path directory, Table table) throws IOException {
+        table.resetStats();
+        return new JournalReplayer(directory).replay(new GameListener() {
+            private boolean settled = true; // Whether the next card starts a new round
+
+            @Override
+            public void cardDealt(int seat, Card card) {
+                if (settled) {
+                    table.clearHands();
+                    settled = false;
+                }
+                table.restoreCard(seat, card);
+            }
+
+            @Override
+            public void roundSettled(int settlement) {
+                table.restoreResult(settlement);
+                settled = true;
+            }
+        });
+    }
+
+    /**
+     * Replays a journal from the command line and prints the rebuilt statistics and the replay speed.
+     *
+     * @param args The directory holding the segments.
+     * @throws IOException If the journal cannot be read.
+     */
+    public static void main(String[] args) throws IOException {
+        Table table = new Table();
+        long start = System.nanoTime();
+        long rounds = restore(Path.of(args[0]), table);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Rounds: %d (%.0f rounds/s)%n", rounds, rounds / seconds);
+        System.out.printf("Player played: %d  won: %d  lost: %d%n", table.gamesPlayed, table.gamesWon, table.gamesLost);
+    }
+}
@@ -0,0 +1,129 @@
+package controller;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The LatencyHistogram counts durations in nanoseconds in buckets of bounded relative error:
+ * every power of two is split in {@link #SUB_BUCKETS} buckets, so a percentile is off by at most 25%.
+ * Every bucket is a {@link LongAdder}, so threads recording at the same time do not contend.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 2;                 // Bits of a value kept below its highest bit
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;  // Buckets per power of two
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB_BUCKETS; // Buckets covering every positive long
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS]; // Count of each bucket
+    private final LongAdder count = new LongAdder();            // Number of durations recorded
+    private final LongAdder sum = new LongAdder();              // Sum of the durations recorded
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0); // Longest duration recorded
+
+    /**
+     * Constructs an empty histogram.
+     */
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records a duration.
+     *
+     * @param nanos The duration in nanoseconds.
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        buckets[bucket(value)].increment();
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Records the time elapsed since a start time.
+     *
+     * @param startNanos The start time, read from {@link System#nanoTime()}.
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Returns the bucket of a value: values below {@link #SUB_BUCKETS} * 2 have their own bucket,
+     * larger ones share a bucket with the values having the same highest bits.
+     */
+    static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Returns the largest value of a bucket.
+     */
+    static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+        long lower = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BITS);
+        return lower + (1L << (exponent - SUB_BITS)) - 1;
+    }
+
+    /**
+     * Retrieves the number of durations recorded.
+     *
+     * @return The count.
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Retrieves the mean of the durations recorded.
+     *
+     * @return The mean in nanoseconds, 0 if nothing was recorded.
+     */
+    public double getMeanNanos() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) sum.sum() / n;
+    }
+
+    /**
+     * Retrieves the longest duration recorded.
+     *
+     * @return The maximum in nanoseconds.
+     */
+    public long getMaxNanos() {
+        return max.get();
+    }
+
+    /**
+     * Estimates a percentile of the durations recorded, as the upper bound of the bucket holding it.
+     *
+     * @param percentile The percentile, from 0 to 100.
+     * @return The duration in nanoseconds, 0 if nothing was recorded.
+     */
+    public long getPercentileNanos(double percentile) {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+        long rank = (long) Math.ceil(total * percentile / 100);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank && seen > 0) {
+                return Math.min(upperBound(i), max.get());
+            }
+        }
+        return 0;
+    }
+}
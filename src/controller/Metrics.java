@@ -0,0 +1,282 @@
+package controller;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+/**
+ * The Metrics registry holds the named counters, latency histograms and gauges of the game.
+ * Counters are {@link LongAdder}s and histograms are made of them, so recording stays cheap under contention
+ * and the metrics can stay on in production; gauges are read only when the metrics are pulled.
+ * <p>
+ * The metrics are pulled either as text with {@link #snapshot()} or through JMX, once {@link #registerMBean()}
+ * has published the registry under {@link #OBJECT_NAME}: every counter and gauge is an attribute, every histogram
+ * gives its count, mean, 50th and 99th percentiles and maximum in microseconds, and the Snapshot attribute
+ * holds the text snapshot. Rates are sampled once a second by a daemon thread, so reading the metrics has no side effect.
+ */
+public class Metrics implements DynamicMBean {
+
+    public static final String OBJECT_NAME = "jblackjack:type=Metrics"; // Name of the MBean of the registry
+    private static final String[] HISTOGRAM_FIELDS = {"count", "meanMicros", "p50Micros", "p99Micros", "maxMicros"};
+    private static final long RATE_PERIOD_MILLIS = 1000; // Period of the window of every rate
+
+    private static final Metrics instance = new Metrics();
+
+    private final Map<String, LongAdder> counters = new ConcurrentSkipListMap<>();
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentSkipListMap<>();
+    private final Map<String, DoubleSupplier> gauges = new ConcurrentSkipListMap<>();
+    private final AtomicBoolean registered = new AtomicBoolean(); // Whether the MBean is registered
+    private ScheduledExecutorService ticker; // Thread sampling the rates, started by the first rate, guarded by this
+
+    /**
+     * The rate of a counter over the last complete window, updated by the ticker thread only.
+     */
+    private static final class Rate {
+        private final LongAdder counter; // The counter whose rate is measured
+        private long lastCount;          // Count at the start of the window, owned by the ticker thread
+        private long lastTime;           // Time of the start of the window, owned by the ticker thread
+        private volatile double perSecond; // Rate over the last complete window
+
+        Rate(LongAdder counter) {
+            this.counter = counter;
+            this.lastCount = counter.sum();
+            this.lastTime = System.nanoTime();
+        }
+
+        /**
+         * Closes the current window and starts the next one.
+         */
+        void tick() {
+            long count = counter.sum();
+            long now = System.nanoTime();
+            perSecond = now == lastTime ? 0 : (count - lastCount) * 1e9 / (now - lastTime);
+            lastCount = count;
+            lastTime = now;
+        }
+    }
+
+    /**
+     * Retrieves the registry of the process.
+     *
+     * @return The registry.
+     */
+    public static Metrics getInstance() {
+        return instance;
+    }
+
+    /**
+     * Retrieves a counter, creating it on first use. Keep the counter in a field on hot paths.
+     *
+     * @param name The name of the counter.
+     * @return The counter.
+     */
+    public LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, key -> new LongAdder());
+    }
+
+    /**
+     * Retrieves a latency histogram, creating it on first use. Keep the histogram in a field on hot paths.
+     *
+     * @param name The name of the histogram.
+     * @return The histogram.
+     */
+    public LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, key -> new LatencyHistogram());
+    }
+
+    /**
+     * Registers a gauge, replacing any gauge of the same name.
+     *
+     * @param name The name of the gauge.
+     * @param gauge The function reading the value of the gauge when the metrics are pulled.
+     */
+    public void gauge(String name, DoubleSupplier gauge) {
+        gauges.put(name, gauge);
+    }
+
+    /**
+     * Registers a gauge giving the rate of a counter per second over the last complete one-second window.
+     * Every reader sees the same value until the window ends; the gauge reads 0 during the first window.
+     *
+     * @param name The name of the gauge.
+     * @param counter The counter whose rate is measured.
+     */
+    public void rate(String name, LongAdder counter) {
+        Rate rate = new Rate(counter);
+        gauge(name, () -> rate.perSecond);
+        ticker().scheduleAtFixedRate(rate::tick, RATE_PERIOD_MILLIS, RATE_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Retrieves the thread sampling the rates, starting it on first use.
+     *
+     * @return The daemon scheduler of the rates.
+     */
+    private synchronized ScheduledExecutorService ticker() {
+        if (ticker == null) {
+            ticker = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "metrics-rates");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return ticker;
+    }
+
+    /**
+     * Publishes the registry on the platform MBean server under {@link #OBJECT_NAME}, once.
+     */
+    public void registerMBean() {
+        if (registered.compareAndSet(false, true)) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+            } catch (JMException e) {
+                registered.set(false);
+                throw new IllegalStateException("Cannot register " + OBJECT_NAME, e);
+            }
+        }
+    }
+
+    /**
+     * Reads every metric, in name order.
+     *
+     * @return The value of every counter, gauge and histogram field, named as the JMX attributes.
+     */
+    public Map<String, Object> values() {
+        Map<String, Object> values = new TreeMap<>();
+        counters.forEach((name, counter) -> values.put(name, counter.sum()));
+        gauges.forEach((name, gauge) -> values.put(name, gauge.getAsDouble()));
+        histograms.forEach((name, histogram) -> {
+            for (String field : HISTOGRAM_FIELDS) {
+                values.put(name + "." + field, histogramField(histogram, field));
+            }
+        });
+        return values;
+    }
+
+    /**
+     * Formats every metric as text, one "name value" line per metric in name order.
+     *
+     * @return The text snapshot.
+     */
+    public String snapshot() {
+        StringBuilder text = new StringBuilder();
+        values().forEach((name, value) -> {
+            text.append(name).append(' ');
+            if (value instanceof Double) {
+                text.append(String.format("%.3f", (Double) value));
+            } else {
+                text.append(value);
+            }
+            text.append('\n');
+        });
+        return text.toString();
+    }
+
+    /**
+     * Reads one field of a histogram.
+     */
+    private static Object histogramField(LatencyHistogram histogram, String field) {
+        switch (field) {
+            case "count": return histogram.getCount();
+            case "meanMicros": return histogram.getMeanNanos() / 1e3;
+            case "p50Micros": return histogram.getPercentileNanos(50) / 1e3;
+            case "p99Micros": return histogram.getPercentileNanos(99) / 1e3;
+            default: return histogram.getMaxNanos() / 1e3;
+        }
+    }
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        if (attribute.equals("Snapshot")) {
+            return snapshot();
+        }
+        LongAdder counter = counters.get(attribute);
+        if (counter != null) {
+            return counter.sum();
+        }
+        DoubleSupplier gauge = gauges.get(attribute);
+        if (gauge != null) {
+            return gauge.getAsDouble();
+        }
+        int dot = attribute.lastIndexOf('.');
+        LatencyHistogram histogram = dot < 0 ? null : histograms.get(attribute.substring(0, dot));
+        if (histogram != null) {
+            return histogramField(histogram, attribute.substring(dot + 1));
+        }
+        throw new AttributeNotFoundException(attribute);
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+        AttributeList list = new AttributeList();
+        for (String attribute : attributes) {
+            try {
+                list.add(new Attribute(attribute, getAttribute(attribute)));
+            } catch (AttributeNotFoundException e) {
+                // Unknown attributes are left out of the list
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException("Metrics are read-only: " + attribute.getName());
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    /**
+     * Rejects every operation, the registry has none; JMX clients get the standard exception for an unknown operation.
+     */
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+        throw new ReflectionException(new NoSuchMethodException(actionName));
+    }
+
+    /**
+     * Describes the attributes present at the time of the call, so metrics created later appear on the next read.
+     */
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        List<MBeanAttributeInfo> attributes = new ArrayList<>();
+        attributes.add(new MBeanAttributeInfo("Snapshot", String.class.getName(), "Every metric as text", true, false, false));
+        for (String name : counters.keySet()) {
+            attributes.add(new MBeanAttributeInfo(name, long.class.getName(), "Counter", true, false, false));
+        }
+        for (String name : gauges.keySet()) {
+            attributes.add(new MBeanAttributeInfo(name, double.class.getName(), "Gauge", true, false, false));
+        }
+        for (String name : histograms.keySet()) {
+            for (String field : HISTOGRAM_FIELDS) {
+                String type = field.equals("count") ? long.class.getName() : double.class.getName();
+                attributes.add(new MBeanAttributeInfo(name + "." + field, type, "Latency histogram", true, false, false));
+            }
+        }
+        return new MBeanInfo(getClass().getName(), "Counters, latency histograms and gauges of the game",
+                attributes.toArray(new MBeanAttributeInfo[0]), null, new MBeanOperationInfo[0], null);
+    }
+}
@@ -0,0 +1,24 @@
+package controller;
+
+/**
+ * The result of one seat against the dealer at the end of a round.
+ * Settlements pack the ordinal of each seat's outcome in an int, see {@link Table#settleRound()}.
+ */
+public enum Outcome {
+    WIN,   // The seat beats the dealer or the dealer busts
+    LOSE,  // The dealer beats the seat
+    PUSH,  // The seat ties with the dealer
+    BUST;  // The seat went over 21 and loses whatever the dealer does
+
+    private static final Outcome[] VALUES = values(); // Outcomes by ordinal, without copying values()
+
+    /**
+     * Retrieves the outcome of an ordinal.
+     *
+     * @param ordinal The ordinal of the outcome.
+     * @return The outcome.
+     */
+    public static Outcome of(int ordinal) {
+        return VALUES[ordinal];
+    }
+}
@@ -0,0 +1,103 @@
+package controller;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The RecordingSummary reads a Flight Recorder recording offline and prints the latency percentiles
+ * of every phase of the game recorded by the JBlackJack events: the methods of {@link GameLogic}
+ * dealing, playing and settling the rounds, and the paints of the game table.
+ */
+public class RecordingSummary {
+
+    private static final String PREFIX = "jblackjack."; // Prefix of the names of the events of the game
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9}; // Percentiles printed
+
+    /**
+     * The durations of one phase.
+     */
+    private static final class Durations {
+        long[] nanos = new long[1024];
+        int count;
+
+        void add(long duration) {
+            if (count == nanos.length) {
+                nanos = Arrays.copyOf(nanos, count * 2);
+            }
+            nanos[count++] = duration;
+        }
+    }
+
+    /**
+     * Reads the durations of the events of the game, by phase.
+     *
+     * @param recording The recording file.
+     * @return The durations of every phase, in phase name order.
+     * @throws IOException If the recording cannot be read.
+     */
+    public static Map<String, long[]> read(Path recording) throws IOException {
+        Map<String, Durations> phases = new TreeMap<>();
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent event = file.readEvent();
+                String type = event.getEventType().getName();
+                if (!type.startsWith(PREFIX)) {
+                    continue;
+                }
+                String phase = event.hasField("phase") ? event.getString("phase") : "drawGame";
+                phases.computeIfAbsent(phase, key -> new Durations()).add(event.getDuration().toNanos());
+            }
+        }
+        Map<String, long[]> durations = new TreeMap<>();
+        phases.forEach((phase, values) -> {
+            long[] sorted = Arrays.copyOf(values.nanos, values.count);
+            Arrays.sort(sorted);
+            durations.put(phase, sorted);
+        });
+        return durations;
+    }
+
+    /**
+     * Returns a percentile of sorted durations, by the nearest rank.
+     *
+     * @param sorted The durations, sorted.
+     * @param percentile The percentile, from 0 to 100.
+     * @return The duration at the percentile.
+     */
+    static long percentile(long[] sorted, double percentile) {
+        int rank = (int) Math.ceil(sorted.length * percentile / 100);
+        return sorted[Math.max(rank - 1, 0)];
+    }
+
+    /**
+     * Prints the count and the latency percentiles of every phase of a recording, in microseconds.
+     *
+     * @param args The recording file.
+     * @throws IOException If the recording cannot be read.
+     */
+    public static void main(String[] args) throws IOException {
+        Map<String, long[]> durations = read(Path.of(args[0]));
+        if (durations.isEmpty()) {
+            System.out.println("No JBlackJack events in " + args[0]);
+            return;
+        }
+        System.out.printf("%-16s %8s", "phase", "count");
+        for (double percentile : PERCENTILES) {
+            System.out.printf(" %10s", "p" + (percentile == (int) percentile ? String.valueOf((int) percentile) : String.valueOf(percentile)));
+        }
+        System.out.printf(" %10s  (microseconds)%n", "max");
+        durations.forEach((phase, sorted) -> {
+            System.out.printf("%-16s %8d", phase, sorted.length);
+            for (double percentile : PERCENTILES) {
+                System.out.printf(" %10.1f", percentile(sorted, percentile) / 1e3);
+            }
+            System.out.printf(" %10.1f%n", sorted[sorted.length - 1] / 1e3);
+        });
+    }
+}
@@ -0,0 +1,30 @@
+package controller;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event covering the start or the settlement of a round.
+ * Its duration is the time taken by the deal or by the settlement.
+ */
+@Name("jblackjack.Round")
+@Label("Round")
+@Category("JBlackJack")
+@Description("The deal or the settlement of a round")
+final class RoundEvent extends Event {
+
+    @Label("Phase")
+    @Description("The method of GameLogic: startGame or finishRound")
+    String phase;
+
+    @Label("Cards")
+    @Description("Cards on the table, every seat and the dealer together")
+    int cards;
+
+    @Label("Shoe Depth")
+    @Description("Cards left in the shoe")
+    int shoeRemaining;
+}
@@ -0,0 +1,329 @@
+package controller;
+
+import model.Card;
+import model.Shoe;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * The RoundJournal appends every shoe and every round played on a table to binary segment files
+ * mapped in memory. Subscribe it to the {@link EventBus} of the table to record the game.
+ * <p>
+ * Every record is {@link #RECORD_SIZE} bytes long:
+ * <pre>
+ *  0  int   CRC32C of bytes 4 to 63
+ *  4  byte  type: SHOE, ROUND or CONTINUATION of the previous record
+ *  5  byte  number of card bytes used in the record
+ *  6  byte  settlement of the round, as returned by {@link Table#settleRound()}
+ *  7  byte  1 if the next record continues this one
+ *  8  long  number of the round
+ * 16  int   number of the shoe
+ * 20  short index of the first card byte of the record in its shoe or round
+ * 22  card bytes: shoe records hold card codes in draw order, written on every shuffle
+ *     and when the discards are reshuffled during a round,
+ *     round records hold the seat in the top 2 bits and the card code in the low 6 bits
+ * </pre>
+ * A shoe or a round never spans two segments, so a segment is rolled over before a group of records
+ * that does not fit. When the journal is reopened, writing resumes after the last complete group
+ * and the torn records after it are cleared. A damaged record followed by a complete group is left in place
+ * and counted, see {@link #getDamagedRecords()}. Read the journal back with {@link JournalReplayer}.
+ */
+public class RoundJournal implements GameListener, AutoCloseable {
+
+    public static final int RECORD_SIZE = 64;                  // Size of every record in bytes
+    public static final int DEFAULT_SEGMENT_RECORDS = 1 << 16; // Records in a new segment, 4 MiB
+    static final int PAYLOAD_OFFSET = 22;                      // Offset of the card bytes in a record
+    static final int PAYLOAD_SIZE = RECORD_SIZE - PAYLOAD_OFFSET; // Card bytes in a record
+    static final byte SHOE = 1;          // Record holding the draw order of a shuffled shoe
+    static final byte ROUND = 2;         // Record holding the cards dealt in a round and its settlement
+    static final byte CONTINUATION = 3;  // Record holding the cards that did not fit the previous record
+    static final int SEAT_SHIFT = 6;     // Position of the seat in a card byte of a round record
+    static final int CODE_MASK = (1 << SEAT_SHIFT) - 1; // Mask of the card code in a card byte
+    private static final String PREFIX = "segment-";   // Prefix of the segment file names
+    private static final String SUFFIX = ".journal";   // Suffix of the segment file names
+    private static final int DEAL_CARDS = 8;           // Cards dealt by Table.startRound
+
+    private final Path directory;       // Directory holding the segments
+    private final int segmentRecords;  // Records in a new segment
+    private final CRC32C crc = new CRC32C();
+    private final byte[] record = new byte[RECORD_SIZE];        // The record being written
+    private final ByteBuffer staging = ByteBuffer.wrap(record); // View writing the fields of the record
+    private byte[] shoeCodes = new byte[0]; // The draw order of the last shoe written
+    private byte[] cards = new byte[32];    // The card bytes of the round being played
+    private int cardCount;                  // Number of card bytes of the round being played
+    private boolean dealt;                  // Whether the deal of the round being played was seen
+
+    private int segmentIndex;          // Index of the segment being written
+    private FileChannel channel;       // Channel of the segment being written
+    private MappedByteBuffer segment;  // The segment being written, positioned after the last record
+    private long round;                // Number of the next round
+    private int shoes;                 // Number of shoes written
+    private long damaged;              // Damaged records found before the last complete group on reopening
+
+    /**
+     * Opens a journal with segments of {@link #DEFAULT_SEGMENT_RECORDS} records.
+     *
+     * @param directory The directory holding the segments, created if needed.
+     * @throws IOException If the segments cannot be created or read.
+     */
+    public RoundJournal(Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_RECORDS);
+    }
+
+    /**
+     * Opens a journal, resuming after the last complete record of an existing one.
+     *
+     * @param directory The directory holding the segments, created if needed.
+     * @param segmentRecords The number of records in a new segment.
+     * @throws IOException If the segments cannot be created or read.
+     */
+    public RoundJournal(Path directory, int segmentRecords) throws IOException {
+        if (segmentRecords < 1) {
+            throw new IllegalArgumentException("segmentRecords must be positive: " + segmentRecords);
+        }
+        this.directory = directory;
+        this.segmentRecords = segmentRecords;
+        Files.createDirectories(directory);
+
+        Path[] segments = segments(directory);
+        if (segments.length == 0) {
+            openSegment(0);
+            return;
+        }
+        // A segment is only created to write a group, so an empty last segment means a crash right after
+        // the rollover; the counters are then found in the segment before it
+        if (segments.length > 1) {
+            try (FileChannel previous = FileChannel.open(segments[segments.length - 2], StandardOpenOption.READ)) {
+                recover(previous.map(FileChannel.MapMode.READ_ONLY, 0, previous.size()));
+            }
+        }
+        openSegment(segments.length - 1);
+        int end = recover(segment);
+        for (int i = end; i < segment.capacity(); i++) {
+            segment.put(i, (byte) 0);  // Clear the torn records, if any, no complete group follows them
+        }
+        segment.position(end);
+    }
+
+    /**
+     * Lists the segments of a journal in the order they were written.
+     *
+     * @param directory The directory holding the segments.
+     * @return The paths of the segments.
+     * @throws IOException If the directory cannot be listed.
+     */
+    static Path[] segments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+            }).sorted().toArray(Path[]::new);
+        }
+    }
+
+    /**
+     * Maps a segment for writing, creating it with {@link #segmentRecords} empty records if needed.
+     *
+     * @param index The index of the segment.
+     * @throws IOException If the segment cannot be mapped.
+     */
+    private void openSegment(int index) throws IOException {
+        Path path = directory.resolve(String.format("%s%08d%s", PREFIX, index, SUFFIX));
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = channel.size() >= RECORD_SIZE ? channel.size() - channel.size() % RECORD_SIZE
+                : (long) segmentRecords * RECORD_SIZE;
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        segmentIndex = index;
+    }
+
+    /**
+     * Scans a whole segment and takes the round and shoe counters from its last complete group.
+     * Damaged records are skipped with the rest of their group, and counted if a complete group follows them.
+     *
+     * @param buffer The mapped segment.
+     * @return The offset following the last complete group.
+     */
+    private int recover(ByteBuffer buffer) {
+        int end = 0;
+        byte groupType = 0;
+        boolean intact = false; // Whether the records of the group being read are all valid
+        int skipped = 0;        // Damaged records since the last complete group
+        for (int position = 0; position + RECORD_SIZE <= buffer.limit(); position += RECORD_SIZE) {
+            if (!JournalReplayer.isValid(buffer, position, crc)) {
+                intact = false;
+                skipped++;
+                continue;
+            }
+            byte type = buffer.get(position + 4);
+            if (type != CONTINUATION) {
+                groupType = type;
+                intact = true;
+            } else if (!intact) {
+                skipped++; // The head of the group is damaged
+                continue;
+            }
+            if (buffer.get(position + 7) == 0) {
+                end = position + RECORD_SIZE;
+                long groupRound = buffer.getLong(position + 8);
+                round = groupType == ROUND ? groupRound + 1 : groupRound;
+                shoes = buffer.getInt(position + 16) + 1;
+                damaged += skipped;
+                skipped = 0;
+                intact = false;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Records the draw order of the shoe.
+     *
+     * @param shoe The shoe, in its new draw order.
+     */
+    @Override
+    public void shoeShuffled(Shoe shoe) {
+        if (shoeCodes.length != shoe.size()) {
+            shoeCodes = new byte[shoe.size()];
+        }
+        for (int i = 0; i < shoeCodes.length; i++) {
+            shoeCodes[i] = (byte) shoe.codeAt(i);
+        }
+        write(SHOE, 0, round, shoes, shoeCodes, shoeCodes.length);
+        shoes++;
+    }
+
+    /**
+     * Records the new draw order of a shoe whose discards were reshuffled during a round.
+     * The round being played goes on and is recorded in the new shoe.
+     *
+     * @param shoe The shoe, in its new draw order.
+     */
+    @Override
+    public void discardsReshuffled(Shoe shoe) {
+        shoeShuffled(shoe);
+    }
+
+    @Override
+    public void cardDealt(int seat, Card card) {
+        if (cardCount == cards.length) {
+            cards = Arrays.copyOf(cards, cards.length * 2);
+        }
+        cards[cardCount++] = (byte) (seat << SEAT_SHIFT | card.ordinal());
+    }
+
+    /**
+     * Keeps only the cards of the deal, dropping those of a round left unsettled.
+     */
+    @Override
+    public void roundStarted() {
+        System.arraycopy(cards, cardCount - DEAL_CARDS, cards, 0, DEAL_CARDS);
+        cardCount = DEAL_CARDS;
+        dealt = true;
+    }
+
+    /**
+     * Records the cards dealt in the round and its settlement.
+     * A round whose deal was not seen, because the journal was opened during it, is not recorded.
+     *
+     * @param settlement The settlement returned by {@link Table#settleRound()}.
+     */
+    @Override
+    public void roundSettled(int settlement) {
+        if (dealt) {
+            write(ROUND, settlement, round, shoes - 1, cards, cardCount);
+            round++;
+        }
+        cardCount = 0;
+        dealt = false;
+    }
+
+    /**
+     * Writes a group of records holding the given card bytes, rolling the segment over first if it does not fit.
+     *
+     * @param type The type of the first record, SHOE or ROUND.
+     * @param settlement The settlement of the round, or 0.
+     * @param groupRound The number of the round.
+     * @param shoe The number of the shoe.
+     * @param bytes The card bytes.
+     * @param length The number of card bytes.
+     */
+    private void write(byte type, int settlement, long groupRound, int shoe, byte[] bytes, int length) {
+        int records = Math.max(1, (length + PAYLOAD_SIZE - 1) / PAYLOAD_SIZE);
+        try {
+            if (segment.remaining() < records * RECORD_SIZE) {
+                if (records > segmentRecords) {
+                    throw new IllegalStateException(records + " records do not fit a segment of " + segmentRecords);
+                }
+                segment.force();
+                channel.close();
+                openSegment(segmentIndex + 1);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        for (int i = 0; i < records; i++) {
+            int offset = i * PAYLOAD_SIZE;
+            int count = Math.min(PAYLOAD_SIZE, length - offset);
+            Arrays.fill(record, (byte) 0);
+            record[4] = i == 0 ? type : CONTINUATION;
+            record[5] = (byte) count;
+            record[6] = (byte) settlement;
+            record[7] = (byte) (i < records - 1 ? 1 : 0);
+            staging.putLong(8, groupRound);
+            staging.putInt(16, shoe);
+            staging.putShort(20, (short) offset);
+            System.arraycopy(bytes, offset, record, PAYLOAD_OFFSET, count);
+            crc.reset();
+            crc.update(record, 4, RECORD_SIZE - 4);
+            staging.putInt(0, (int) crc.getValue());
+            segment.put(record);
+        }
+    }
+
+    /**
+     * Forces the records written so far to the storage device.
+     */
+    public void flush() {
+        segment.force();
+    }
+
+    /**
+     * Retrieves the number of rounds recorded, including those of earlier sessions.
+     *
+     * @return The number of the next round.
+     */
+    public long getRounds() {
+        return round;
+    }
+
+    /**
+     * Retrieves the number of damaged records found when the journal was reopened.
+     * Only records followed by a complete group are counted; a torn end is cleared silently.
+     *
+     * @return The number of damaged records in the last two segments.
+     */
+    public long getDamagedRecords() {
+        return damaged;
+    }
+
+    /**
+     * Forces the records to the storage device and closes the segment being written.
+     *
+     * @throws IOException If the segment cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        segment.force();
+        channel.close();
+    }
+}
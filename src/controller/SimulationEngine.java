@@ -0,0 +1,186 @@
+package controller;
+
+import model.CompositionShoe;
+import model.ShuffleSource;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * The SimulationEngine plays Blackjack rounds without any GUI, using the same rules as {@link GameLogic}.
+ * Rounds are split across all cores with fork-join. Every worker gets its own random stream
+ * derived from a single seed, so the same seed and number of rounds always give the same result.
+ * Every worker plays on its own {@link Table}, which keeps its shoe across rounds
+ * and reshuffles it when the cut card comes out, like the table of the GUI.
+ * By default the shoes of a worker are shuffled by one {@link Random}; with a shuffle algorithm set,
+ * every shoe is shuffled by a generator of that algorithm seeded from the worker's stream.
+ * Shoes can also be {@link CompositionShoe}s, which only count the cards left, for huge or infinite shoes.
+ */
+public class SimulationEngine {
+
+    public static final int INFINITE_DECKS = 0; // Number of decks of an infinite shoe
+    private static final long ROUNDS_PER_TASK = 10_000; // Rounds played by one worker without splitting
+
+    private final int numDecks;       // Number of decks in each shoe
+    private final double penetration; // Fraction of each shoe dealt before reshuffling
+    private final long seed;          // Seed of the root random stream
+    private final ForkJoinPool pool;  // Pool running the workers
+    private final BotStrategy[] strategies = { // Strategy of each seat, in the order of SimulationResult.SEATS
+            BotStrategy.DRAW_TO_SEVENTEEN, BotStrategy.DRAW_TO_SEVENTEEN, BotStrategy.DRAW_TO_SEVENTEEN};
+    private ShuffleSource.Algorithm shuffleAlgorithm; // Generator of every shoe, or null to use one Random per worker
+    private boolean sampledShoe;      // Whether finite shoes are composition shoes instead of stored shoes
+
+    /**
+     * Constructs a simulation engine running on the common fork-join pool.
+     *
+     * @param numDecks The number of decks in each shoe, or {@link #INFINITE_DECKS}.
+     * @param seed The seed used to reproduce the results.
+     */
+    public SimulationEngine(int numDecks, long seed) {
+        this(numDecks, Table.PENETRATION, seed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a simulation engine running on the given fork-join pool.
+     *
+     * @param numDecks The number of decks in each shoe, or {@link #INFINITE_DECKS}.
+     * @param penetration The fraction of each shoe dealt before the cut card comes out.
+     * @param seed The seed used to reproduce the results.
+     * @param pool The pool running the workers.
+     */
+    public SimulationEngine(int numDecks, double penetration, long seed, ForkJoinPool pool) {
+        this.numDecks = numDecks;
+        this.penetration = penetration;
+        this.seed = seed;
+        this.pool = pool;
+    }
+
+    /**
+     * Sets the strategy of a seat. Every seat draws until 17 unless changed.
+     *
+     * @param seat The index of the seat in {@link SimulationResult#SEATS}.
+     * @param strategy The strategy deciding when the seat hits.
+     */
+    public void setStrategy(int seat, BotStrategy strategy) {
+        strategies[seat] = strategy;
+    }
+
+    /**
+     * Sets the generator shuffling every shoe. The results stay reproducible from the seed,
+     * but differ from one algorithm to another.
+     *
+     * @param algorithm The algorithm of the generators, or null to shuffle with one Random per worker.
+     */
+    public void setShuffleAlgorithm(ShuffleSource.Algorithm algorithm) {
+        this.shuffleAlgorithm = algorithm;
+    }
+
+    /**
+     * Sets whether finite shoes are composition shoes, drawing by weighted sampling from the cards left
+     * of each rank and suit, with the same memory for any number of decks. An infinite shoe always is.
+     *
+     * @param sampledShoe true to deal from composition shoes, false to deal from stored shoes.
+     */
+    public void setSampledShoe(boolean sampledShoe) {
+        this.sampledShoe = sampledShoe;
+    }
+
+    /**
+     * Creates the table of a worker.
+     *
+     * @param tableSeed The seed of the random source of the table.
+     * @return A new table with the shoe settings of the engine.
+     */
+    private Table newTable(long tableSeed) {
+        if (numDecks != INFINITE_DECKS && !sampledShoe) {
+            return shuffleAlgorithm == null
+                    ? new Table(numDecks, penetration, new Random(tableSeed))
+                    : new Table(numDecks, penetration, new ShuffleSource(shuffleAlgorithm, tableSeed));
+        }
+        CompositionShoe shoe = numDecks == INFINITE_DECKS ? new CompositionShoe() : new CompositionShoe(numDecks, penetration);
+        return shuffleAlgorithm == null
+                ? new Table(shoe, new Random(tableSeed))
+                : new Table(shoe, new ShuffleSource(shuffleAlgorithm, tableSeed));
+    }
+
+    /**
+     * Plays the given number of rounds and merges the results of all workers.
+     *
+     * @param rounds The number of rounds to play.
+     * @return The merged per-seat results, including the elapsed time.
+     */
+    public SimulationResult run(long rounds) {
+        long start = System.nanoTime();
+        SimulationResult result = pool.invoke(new RoundTask(rounds, new SplittableRandom(seed)));
+        result.elapsedNanos = System.nanoTime() - start;
+        return result;
+    }
+
+    /**
+     * Fork-join task playing a range of rounds.
+     * Larger ranges are split in two halves, each with its own split random stream.
+     */
+    @SuppressWarnings("serial")
+    private class RoundTask extends RecursiveTask<SimulationResult> {
+        private final long rounds;
+        private final SplittableRandom random;
+
+        RoundTask(long rounds, SplittableRandom random) {
+            this.rounds = rounds;
+            this.random = random;
+        }
+
+        @Override
+        protected SimulationResult compute() {
+            if (rounds <= ROUNDS_PER_TASK) {
+                SimulationResult result = new SimulationResult();
+                Table table = newTable(random.nextLong());
+                table.setBot1Strategy(strategies[1]);
+                table.setBot2Strategy(strategies[2]);
+
+                // Rounds are played the same way as the GUI, the human player using the strategy of its seat
+                int[] settlements = new int[(int) rounds];
+                table.playRounds(settlements.length, strategies[0], settlements, null);
+                for (int settlement : settlements) {
+                    result.record(settlement);
+                }
+                return result;
+            }
+            long half = rounds / 2;
+            RoundTask left = new RoundTask(half, random.split());
+            RoundTask right = new RoundTask(rounds - half, random.split());
+            left.fork();
+            return right.compute().merge(left.join());
+        }
+    }
+
+    /**
+     * Runs a simulation from the command line and prints the results.
+     *
+     * @param args The number of rounds, the seed, the number of decks or "inf" for an infinite shoe,
+     *             then in any order "basic" to play every seat with basic strategy, "sampled" to deal
+     *             from composition shoes and the name of a shuffle algorithm (all optional).
+     */
+    public static void main(String[] args) {
+        long rounds = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 42;
+        int numDecks = args.length <= 2 ? 4 : args[2].equals("inf") ? INFINITE_DECKS : Integer.parseInt(args[2]);
+
+        SimulationEngine engine = new SimulationEngine(numDecks, seed);
+        for (int i = 3; i < args.length; i++) {
+            if (args[i].equals("basic")) {
+                for (int seat = 0; seat < SimulationResult.SEATS.length; seat++) {
+                    engine.setStrategy(seat, BasicStrategy.INSTANCE);
+                }
+            } else if (args[i].equals("sampled")) {
+                engine.setSampledShoe(true);
+            } else {
+                engine.setShuffleAlgorithm(ShuffleSource.Algorithm.valueOf(args[i]));
+            }
+        }
+        SimulationResult result = engine.run(rounds);
+        System.out.println(result);
+    }
+}
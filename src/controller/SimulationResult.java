@@ -0,0 +1,97 @@
+package controller;
+
+/**
+ * Holds the per-seat results of a batch of simulated rounds.
+ * Results from different workers are merged together into one total.
+ */
+public class SimulationResult {
+
+    public static final String[] SEATS = {"Player", "Bot1", "Bot2"}; // Seats settled against the dealer, as in Table
+
+    public long rounds;        // Number of rounds played
+    public long[] wins;        // Wins per seat
+    public long[] losses;      // Losses per seat
+    public long[] ties;        // Ties per seat
+    public long elapsedNanos;  // Wall-clock time of the whole run
+
+    /**
+     * Constructs an empty result with all counters set to 0.
+     */
+    public SimulationResult() {
+        this.wins = new long[SEATS.length];
+        this.losses = new long[SEATS.length];
+        this.ties = new long[SEATS.length];
+    }
+
+    /**
+     * Records the outcome of every seat for one round. Busts count as losses.
+     *
+     * @param settlement The settlement returned by {@link Table#settleRound()}.
+     */
+    public void record(int settlement) {
+        for (int seat = 0; seat < SEATS.length; seat++) {
+            Outcome outcome = Table.outcome(settlement, seat);
+            if (outcome == Outcome.PUSH) {
+                ties[seat]++;
+            } else if (outcome == Outcome.WIN) {
+                wins[seat]++;
+            } else {
+                losses[seat]++;
+            }
+        }
+        rounds++;
+    }
+
+    /**
+     * Adds the counters of another result to this one.
+     *
+     * @param other The result to merge into this one.
+     * @return This result, for chaining.
+     */
+    public SimulationResult merge(SimulationResult other) {
+        rounds += other.rounds;
+        for (int i = 0; i < SEATS.length; i++) {
+            wins[i] += other.wins[i];
+            losses[i] += other.losses[i];
+            ties[i] += other.ties[i];
+        }
+        return this;
+    }
+
+    /**
+     * Returns the number of rounds played per second of wall-clock time.
+     *
+     * @return The simulation throughput in rounds per second.
+     */
+    public double roundsPerSecond() {
+        return elapsedNanos == 0 ? 0 : rounds * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    /**
+     * Returns the net result per round of a seat betting one unit every round.
+     * A negative value is the house edge against that seat.
+     *
+     * @param seat The index of the seat in {@link #SEATS}.
+     * @return The average units won per round.
+     */
+    public double netPerRound(int seat) {
+        return rounds == 0 ? 0 : (double) (wins[seat] - losses[seat]) / rounds;
+    }
+
+    /**
+     * Returns a readable summary of the counters of each seat and the throughput.
+     *
+     * @return The summary of this result.
+     */
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        result.append("Rounds: ").append(rounds).append(System.lineSeparator());
+        for (int i = 0; i < SEATS.length; i++) {
+            result.append(String.format("%-7s won: %d  lost: %d  tied: %d  net/round: %+.5f%n",
+                    SEATS[i], wins[i], losses[i], ties[i], netPerRound(i)));
+        }
+        result.append(String.format("Rounds/second: %.0f", roundsPerSecond()));
+        return result.toString();
+    }
+}
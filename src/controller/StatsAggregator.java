@@ -0,0 +1,233 @@
+package controller;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The StatsAggregator follows the rounds of one seat as they are settled: lifetime counts,
+ * win and loss rates over the last {@link #WINDOWS} rounds, the distribution of the final totals
+ * of the seat and of the dealer, and the current and longest streaks.
+ * Its memory is fixed: the rolling windows share one ring of outcomes sized for the largest window,
+ * and the totals are counted in histograms of {@link #TOTALS} buckets.
+ * <p>
+ * One thread records the rounds; any thread can read a consistent {@link Snapshot} at any time without locking.
+ * The writer marks every update with a version counter made odd during the update, and readers copy the
+ * counters again if the version changed or was odd while they copied them.
+ */
+public class StatsAggregator {
+
+    public static final int[] WINDOWS = {100, 1_000, 10_000}; // Sizes of the rolling windows, largest last
+    public static final int TOTALS = 32;  // Buckets of the total histograms, enough for a bust from 20
+
+    private static final int ROUNDS = 0;          // Index of the number of rounds
+    private static final int WINS = 1;            // Index of the number of rounds won
+    private static final int LOSSES = 2;          // Index of the number of rounds lost, busts included
+    private static final int PUSHES = 3;          // Index of the number of rounds tied
+    private static final int BUSTS = 4;           // Index of the number of rounds the seat busted
+    private static final int DEALER_BUSTS = 5;    // Index of the number of rounds the dealer busted
+    private static final int STREAK = 6;          // Index of the current streak, positive for wins
+    private static final int LONGEST_WINS = 7;    // Index of the longest winning streak
+    private static final int LONGEST_LOSSES = 8;  // Index of the longest losing streak
+    private static final int WINDOW_WINS = 9;     // Index of the wins of each window
+    private static final int WINDOW_LOSSES = WINDOW_WINS + WINDOWS.length; // Index of the losses of each window
+    private static final int SEAT_TOTALS = WINDOW_LOSSES + WINDOWS.length; // Index of the histogram of the seat's totals
+    private static final int DEALER_TOTALS = SEAT_TOTALS + TOTALS;        // Index of the histogram of the dealer's totals
+    private static final int COUNTERS = DEALER_TOTALS + TOTALS;           // Number of counters
+    private static final VarHandle VERSION; // Handle ordering the writes of the version
+
+    static {
+        try {
+            VERSION = MethodHandles.lookup().findVarHandle(StatsAggregator.class, "version", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final int seat;  // The seat followed
+    private final byte[] outcomes = new byte[WINDOWS[WINDOWS.length - 1]]; // Ring of the last outcome ordinals, writer only
+    private final long[] values = new long[COUNTERS]; // The counters as known to the writer
+    private final AtomicLongArray counters = new AtomicLongArray(COUNTERS); // The counters published to any thread
+    private int next;                                    // Slot of the next outcome in the ring
+    private volatile long version; // Odd while the writer updates the counters
+
+    /**
+     * Counters copied at one point in time.
+     */
+    public static class Snapshot {
+        public final long rounds;        // Number of rounds
+        public final long wins;          // Number of rounds won
+        public final long losses;        // Number of rounds lost, busts included
+        public final long pushes;        // Number of rounds tied
+        public final long busts;         // Number of rounds the seat busted
+        public final long dealerBusts;   // Number of rounds the dealer busted
+        public final long streak;        // Current streak: wins if positive, losses if negative, pushes leave it unchanged
+        public final long longestWins;   // Longest winning streak
+        public final long longestLosses; // Longest losing streak
+        public final long[] windowRounds;    // Rounds counted by each window, at most its size
+        public final long[] windowWins;      // Wins in each window
+        public final long[] windowLosses;    // Losses in each window
+        public final long[] totals;          // Number of rounds the seat ended on each total
+        public final long[] dealerTotals;    // Number of rounds the dealer ended on each total
+
+        private Snapshot(long[] copy) {
+            rounds = copy[ROUNDS];
+            wins = copy[WINS];
+            losses = copy[LOSSES];
+            pushes = copy[PUSHES];
+            busts = copy[BUSTS];
+            dealerBusts = copy[DEALER_BUSTS];
+            streak = copy[STREAK];
+            longestWins = copy[LONGEST_WINS];
+            longestLosses = copy[LONGEST_LOSSES];
+            windowRounds = new long[WINDOWS.length];
+            windowWins = new long[WINDOWS.length];
+            windowLosses = new long[WINDOWS.length];
+            for (int w = 0; w < WINDOWS.length; w++) {
+                windowRounds[w] = Math.min(rounds, WINDOWS[w]);
+                windowWins[w] = copy[WINDOW_WINS + w];
+                windowLosses[w] = copy[WINDOW_LOSSES + w];
+            }
+            totals = new long[TOTALS];
+            dealerTotals = new long[TOTALS];
+            System.arraycopy(copy, SEAT_TOTALS, totals, 0, TOTALS);
+            System.arraycopy(copy, DEALER_TOTALS, dealerTotals, 0, TOTALS);
+        }
+
+        /**
+         * Returns the win rate over a rolling window.
+         *
+         * @param window The index of the window in {@link #WINDOWS}.
+         * @return The fraction of the rounds of the window won, 0 before the first round.
+         */
+        public double winRate(int window) {
+            return windowRounds[window] == 0 ? 0 : (double) windowWins[window] / windowRounds[window];
+        }
+    }
+
+    /**
+     * Constructs an aggregator following the human player.
+     */
+    public StatsAggregator() {
+        this(Table.PLAYER);
+    }
+
+    /**
+     * Constructs an aggregator following a seat.
+     *
+     * @param seat The seat: {@link Table#PLAYER}, {@link Table#BOT1} or {@link Table#BOT2}.
+     */
+    public StatsAggregator(int seat) {
+        this.seat = seat;
+    }
+
+    /**
+     * Records one settled round. Only one thread may record rounds.
+     *
+     * @param settlement The settlement returned by {@link Table#settleRound()}.
+     * @param total The final total of the seat.
+     * @param dealerTotal The final total of the dealer.
+     */
+    public void record(int settlement, int total, int dealerTotal) {
+        Outcome outcome = Table.outcome(settlement, seat);
+        long rounds = values[ROUNDS];
+        long v = version;
+        VERSION.setOpaque(this, v + 1);
+        VarHandle.storeStoreFence();  // The odd version is visible before any counter changes
+
+        for (int w = 0; w < WINDOWS.length; w++) {
+            if (rounds >= WINDOWS[w]) {
+                // The oldest outcome of the window leaves it; for the largest window it is the one overwritten below
+                int oldestSlot = next - WINDOWS[w];
+                Outcome oldest = Outcome.of(outcomes[oldestSlot < 0 ? oldestSlot + outcomes.length : oldestSlot]);
+                add(oldest == Outcome.WIN ? WINDOW_WINS + w : isLoss(oldest) ? WINDOW_LOSSES + w : -1, -1);
+            }
+            add(outcome == Outcome.WIN ? WINDOW_WINS + w : isLoss(outcome) ? WINDOW_LOSSES + w : -1, 1);
+        }
+        outcomes[next] = (byte) outcome.ordinal();
+        next = next + 1 == outcomes.length ? 0 : next + 1;
+
+        add(ROUNDS, 1);
+        long streak = values[STREAK];
+        if (outcome == Outcome.WIN) {
+            add(WINS, 1);
+            streak = streak > 0 ? streak + 1 : 1;
+            add(LONGEST_WINS, Math.max(streak - values[LONGEST_WINS], 0));
+        } else if (isLoss(outcome)) {
+            add(LOSSES, 1);
+            streak = streak < 0 ? streak - 1 : -1;
+            add(LONGEST_LOSSES, Math.max(-streak - values[LONGEST_LOSSES], 0));
+        } else {
+            add(PUSHES, 1);
+        }
+        add(STREAK, streak - values[STREAK]);
+        if (outcome == Outcome.BUST) {
+            add(BUSTS, 1);
+        }
+        if (dealerTotal > 21) {
+            add(DEALER_BUSTS, 1);
+        }
+        add(SEAT_TOTALS + Math.min(total, TOTALS - 1), 1);
+        add(DEALER_TOTALS + Math.min(dealerTotal, TOTALS - 1), 1);
+
+        VERSION.setRelease(this, v + 2);  // Every counter changes before the version is even again
+    }
+
+    /**
+     * Records the rounds played by {@link Table#playRounds(int, BotStrategy, int[], byte[])}.
+     *
+     * @param rounds The number of rounds played.
+     * @param settlements The settlement of each round.
+     * @param totals The final sums of each round, {@link Table#TOTALS_PER_ROUND} per round, dealer last.
+     */
+    public void record(int rounds, int[] settlements, byte[] totals) {
+        for (int round = 0; round < rounds; round++) {
+            int offset = round * Table.TOTALS_PER_ROUND;
+            record(settlements[round], totals[offset + seat], totals[offset + Table.SEATS]);
+        }
+    }
+
+    /**
+     * Copies every counter at one point in time, without blocking the thread recording the rounds.
+     *
+     * @return The counters.
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[COUNTERS];
+        long before;
+        do {
+            before = version;
+            if ((before & 1) != 0) {
+                Thread.onSpinWait();  // A round is being recorded
+                continue;
+            }
+            for (int i = 0; i < COUNTERS; i++) {
+                copy[i] = counters.get(i);
+            }
+        } while ((before & 1) != 0 || version != before);
+        return new Snapshot(copy);
+    }
+
+    /**
+     * Adds to a counter; only called by the thread recording the rounds.
+     *
+     * @param index The index of the counter, or -1 for none.
+     * @param delta The value added.
+     */
+    private void add(int index, long delta) {
+        if (index >= 0 && delta != 0) {
+            values[index] += delta;
+            counters.lazySet(index, values[index]);
+        }
+    }
+
+    /**
+     * Checks if an outcome counts as a loss.
+     *
+     * @param outcome The outcome of the seat.
+     * @return true for a loss or a bust.
+     */
+    private static boolean isLoss(Outcome outcome) {
+        return outcome == Outcome.LOSE || outcome == Outcome.BUST;
+    }
+}
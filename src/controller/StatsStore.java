@@ -0,0 +1,444 @@
+package controller;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.zip.CRC32C;
+
+/**
+ * The StatsStore keeps the statistics of every player profile across sessions.
+ * <p>
+ * Every settled round is applied in memory and queued; a writer thread appends the queued rounds
+ * to a write-ahead log in batches and forces each batch to disk once, so recording a round never waits for the disk.
+ * Every log record carries a sequence number, and a snapshot holds the statistics of all profiles up to
+ * the last sequence number it applied. Opening the store reads the snapshot, replays the records of the log
+ * that follow it up to the last intact one, then writes a new snapshot and empties the log,
+ * so recovery only ever replays the rounds of one session, and never twice if a crash left the log behind a snapshot.
+ */
+public class StatsStore implements AutoCloseable {
+
+    private static final String SNAPSHOT = "stats.snapshot"; // File name of the snapshot
+    private static final String LOG = "stats.wal";           // File name of the write-ahead log
+    private static final int MAGIC = 0x4A424A53;             // First int of a snapshot, "JBJS"
+    private static final int BATCH = 256;                    // Most rounds written with one force
+    private static final long COMPACT_BYTES = 1 << 20;       // Size of the log triggering a new snapshot
+    private static final int HEADER_SIZE = 8;                // Length and CRC of a log record
+    private static final int FIELDS_SIZE = 12;               // Sequence, type, outcome and name length of a log record
+    private static final byte ROUND = 1;                     // Log record of a settled round
+    private static final byte RESET = 2;                     // Log record of a reset profile
+    private static final int PLAYED = 0, WON = 1, LOST = 2;  // Indexes of the counters of a profile
+    private static final byte STOP = 0;                      // Update queued last by close, never written
+    public static final int MAX_NAME_LENGTH = 0xFFFF / 3;    // Longest profile name, whose UTF-8 fits 16 bits
+
+    private final Path directory;  // Directory holding the snapshot and the log
+    private final Map<String, int[]> live = new ConcurrentHashMap<>(); // Statistics including queued rounds
+    private final Map<String, int[]> durable = new HashMap<>(); // Statistics written, owned by the writer thread
+    private long sequence;           // Sequence number of the last record applied to durable, owned by the writer thread
+    private final LinkedBlockingQueue<Update> queue = new LinkedBlockingQueue<>(); // Rounds waiting to be written
+    private final CRC32C crc = new CRC32C();
+    private final FileChannel log;   // The write-ahead log, positioned at its end
+    private final Thread writer;     // Thread appending the queued rounds to the log
+
+    private long queued;             // Number of updates queued, guarded by this
+    private long written;            // Number of updates written and forced, guarded by this
+    private IOException failure;     // The first write failure, guarded by this
+    private boolean closing;         // Whether close has queued the STOP update, guarded by this
+
+    /**
+     * One change of a profile waiting to be written.
+     */
+    private static final class Update {
+        final String profile;  // The profile changed
+        final byte type;       // ROUND or RESET
+        final boolean won;     // Whether the round was won
+
+        Update(String profile, byte type, boolean won) {
+            this.profile = profile;
+            this.type = type;
+            this.won = won;
+        }
+    }
+
+    /**
+     * Opens the store in the given directory, recovering the statistics written by earlier sessions.
+     *
+     * @param directory The directory holding the snapshot and the log, created if needed.
+     * @throws IOException If the store cannot be read or written.
+     */
+    public StatsStore(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+        readSnapshot();
+        log = FileChannel.open(directory.resolve(LOG),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (replayLog() > 0) {
+            compact();
+        }
+        for (Map.Entry<String, int[]> entry : durable.entrySet()) {
+            live.put(entry.getKey(), entry.getValue().clone());
+        }
+        writer = new Thread(this::writeBehind, "stats-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Records a settled round for a profile. Any outcome other than a win counts as a game lost,
+     * as in {@link Table#recordResult(int)}. The round is written to disk in the background.
+     *
+     * @param profile The name of the player profile.
+     * @param settlement The settlement returned by {@link Table#settleRound()}.
+     * @throws IllegalArgumentException If the profile name is longer than {@link #MAX_NAME_LENGTH}.
+     * @throws IllegalStateException If the store is closing.
+     */
+    public void record(String profile, int settlement) {
+        checkName(profile);
+        boolean won = Table.outcome(settlement, Table.PLAYER) == Outcome.WIN;
+        enqueue(new Update(profile, ROUND, won));
+        live.compute(profile, (name, stats) -> apply(stats, ROUND, won));
+    }
+
+    /**
+     * Resets the statistics of a profile.
+     *
+     * @param profile The name of the player profile.
+     * @throws IllegalArgumentException If the profile name is longer than {@link #MAX_NAME_LENGTH}.
+     * @throws IllegalStateException If the store is closing.
+     */
+    public void reset(String profile) {
+        checkName(profile);
+        enqueue(new Update(profile, RESET, false));
+        live.remove(profile);
+    }
+
+    /**
+     * Copies the statistics of a profile into the statistics of a table.
+     *
+     * @param profile The name of the player profile.
+     * @param table The table receiving the statistics; a new profile starts from zero.
+     */
+    public void load(String profile, Table table) {
+        int[] stats = live.getOrDefault(profile, new int[3]);
+        synchronized (stats) {
+            table.gamesPlayed = stats[PLAYED];
+            table.gamesWon = stats[WON];
+            table.gamesLost = stats[LOST];
+        }
+    }
+
+    /**
+     * Waits until every change recorded so far is forced to disk.
+     *
+     * @throws IOException If the writer thread failed to write the log.
+     */
+    public synchronized void flush() throws IOException {
+        long target = queued;
+        while (written < target && failure == null) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while flushing the statistics", e);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Stops accepting changes, lets the writer thread write every queued change and stop,
+     * then writes a snapshot and empties the log. Changes recorded once the store is closing are rejected.
+     *
+     * @throws IOException If the store cannot be written.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closing) {
+                return;
+            }
+            closing = true;
+            queue.add(new Update(null, STOP, false)); // Queued after every change, so they are all written
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while closing the statistics", e);
+        }
+        synchronized (this) {
+            if (failure != null) {
+                throw failure;
+            }
+        }
+        compact();
+        log.close();
+    }
+
+    /**
+     * Checks that a profile name fits a log record and a snapshot: its UTF-8 and modified UTF-8 encodings
+     * take at most 3 bytes per char, so {@link #MAX_NAME_LENGTH} chars fit their 16-bit lengths.
+     *
+     * @param profile The name of the player profile.
+     * @throws IllegalArgumentException If the name is too long.
+     */
+    private static void checkName(String profile) {
+        if (profile.length() > MAX_NAME_LENGTH) {
+            throw new IllegalArgumentException("Profile name longer than " + MAX_NAME_LENGTH + " characters");
+        }
+    }
+
+    /**
+     * Applies a change to the counters of a profile.
+     *
+     * @param stats The counters of the profile, or null for a new profile.
+     * @param type ROUND or RESET.
+     * @param won Whether the round was won.
+     * @return The counters of the profile, or null once reset.
+     */
+    private static int[] apply(int[] stats, byte type, boolean won) {
+        if (type == RESET) {
+            return null;
+        }
+        if (stats == null) {
+            stats = new int[3];
+        }
+        synchronized (stats) {
+            stats[PLAYED]++;
+            stats[won ? WON : LOST]++;
+        }
+        return stats;
+    }
+
+    /**
+     * Queues a change for the writer thread.
+     *
+     * @param update The change to write.
+     * @throws IllegalStateException If the store is closing.
+     */
+    private synchronized void enqueue(Update update) {
+        if (closing) {
+            throw new IllegalStateException("The statistics store is closed");
+        }
+        queued++;
+        queue.add(update);
+    }
+
+    /**
+     * Body of the writer thread: takes the queued changes in batches, appends each batch to the log
+     * and forces it once, then wakes up the threads waiting in {@link #flush()}.
+     * It stops after the batch ending with the STOP update queued by {@link #close()}.
+     */
+    private void writeBehind() {
+        List<Update> batch = new ArrayList<>(BATCH);
+        ByteBuffer buffer = ByteBuffer.allocate(BATCH * 64);
+        boolean stopping = false;
+        while (!stopping) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(batch, BATCH - 1);
+            if (batch.get(batch.size() - 1).type == STOP) {
+                batch.remove(batch.size() - 1);
+                stopping = true;
+            }
+            try {
+                buffer.clear();
+                for (Update update : batch) {
+                    byte[] name = update.profile.getBytes(StandardCharsets.UTF_8);
+                    if (buffer.remaining() < HEADER_SIZE + FIELDS_SIZE + name.length) {
+                        buffer = grow(buffer, HEADER_SIZE + FIELDS_SIZE + name.length);
+                    }
+                    appendRecord(buffer, ++sequence, update, name);
+                    durable.compute(update.profile, (profile, stats) -> apply(stats, update.type, update.won));
+                }
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    log.write(buffer);
+                }
+                log.force(false);
+                if (log.size() > COMPACT_BYTES) {
+                    compact();
+                }
+            } catch (IOException e) {
+                synchronized (this) {
+                    failure = e;
+                    notifyAll();
+                }
+                return;
+            }
+            synchronized (this) {
+                written += batch.size();
+                notifyAll();
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Appends one record to the log buffer: the length and CRC of the payload,
+     * then the sequence number, the type, the outcome and the profile name.
+     *
+     * @param buffer The buffer holding the batch.
+     * @param number The sequence number of the record.
+     * @param update The change to append.
+     * @param name The profile name in UTF-8.
+     */
+    private void appendRecord(ByteBuffer buffer, long number, Update update, byte[] name) {
+        int start = buffer.position();
+        buffer.position(start + HEADER_SIZE);
+        buffer.putLong(number).put(update.type).put((byte) (update.won ? 1 : 0)).putShort((short) name.length).put(name);
+        int length = buffer.position() - start - HEADER_SIZE;
+        crc.reset();
+        crc.update(buffer.array(), start + HEADER_SIZE, length);
+        buffer.putInt(start, length).putInt(start + 4, (int) crc.getValue());
+    }
+
+    /**
+     * Returns a larger copy of a buffer.
+     *
+     * @param buffer The buffer to grow.
+     * @param needed The number of bytes that must fit after its position.
+     * @return The new buffer, at the same position.
+     */
+    private static ByteBuffer grow(ByteBuffer buffer, int needed) {
+        ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + needed));
+        buffer.flip();
+        return grown.put(buffer);
+    }
+
+    /**
+     * Reads the snapshot into the durable statistics, if there is one.
+     *
+     * @throws IOException If the snapshot cannot be read.
+     */
+    private void readSnapshot() throws IOException {
+        Path snapshot = directory.resolve(SNAPSHOT);
+        if (!Files.exists(snapshot)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshot)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a statistics snapshot: " + snapshot);
+            }
+            sequence = in.readLong();
+            int profiles = in.readInt();
+            for (int i = 0; i < profiles; i++) {
+                String profile = in.readUTF();
+                durable.put(profile, new int[] {in.readInt(), in.readInt(), in.readInt()});
+            }
+        }
+    }
+
+    /**
+     * Applies the intact records of the log that follow the snapshot to the durable statistics and cuts off a torn end.
+     * Records the snapshot already applied are skipped.
+     *
+     * @return The number of records read, replayed or skipped.
+     * @throws IOException If the log cannot be read.
+     */
+    private int replayLog() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) log.size());
+        while (buffer.hasRemaining() && log.read(buffer, buffer.position()) >= 0) {
+            // Read the whole log
+        }
+        buffer.flip();
+        int records = 0;
+        while (buffer.remaining() >= HEADER_SIZE) {
+            int start = buffer.position();
+            int length = buffer.getInt(start);
+            if (length < FIELDS_SIZE || length > buffer.remaining() - HEADER_SIZE) {
+                break;
+            }
+            crc.reset();
+            crc.update(buffer.array(), start + HEADER_SIZE, length);
+            if ((int) crc.getValue() != buffer.getInt(start + 4)) {
+                break;
+            }
+            long number = buffer.getLong(start + HEADER_SIZE);
+            if (number > sequence) {
+                byte type = buffer.get(start + HEADER_SIZE + 8);
+                boolean won = buffer.get(start + HEADER_SIZE + 9) != 0;
+                int nameLength = buffer.getShort(start + HEADER_SIZE + 10) & 0xFFFF;
+                String profile = new String(buffer.array(), start + HEADER_SIZE + FIELDS_SIZE, nameLength, StandardCharsets.UTF_8);
+                durable.compute(profile, (name, stats) -> apply(stats, type, won));
+                sequence = number;
+            }
+            buffer.position(start + HEADER_SIZE + length);
+            records++;
+        }
+        log.truncate(buffer.position());  // Drop a record torn by a crash
+        log.position(buffer.position());
+        return records;
+    }
+
+    /**
+     * Writes the durable statistics and the sequence number of the last record applied to a new snapshot,
+     * replacing the old one atomically, then empties the log. A crash before the log is emptied leaves records
+     * the snapshot already holds, which the next {@link #replayLog()} skips.
+     *
+     * @throws IOException If the snapshot cannot be written.
+     */
+    private void compact() throws IOException {
+        Path temporary = directory.resolve(SNAPSHOT + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            out.writeInt(MAGIC);
+            out.writeLong(sequence);
+            out.writeInt(durable.size());
+            for (Map.Entry<String, int[]> entry : durable.entrySet()) {
+                out.writeUTF(entry.getKey());
+                for (int counter : entry.getValue()) {
+                    out.writeInt(counter);
+                }
+            }
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temporary, directory.resolve(SNAPSHOT), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        forceDirectory(directory);
+        log.truncate(0);
+        log.position(0);
+        log.force(true);
+    }
+
+    /**
+     * Forces the entries of a directory to disk, so a file renamed into it survives a crash.
+     * Platforms that cannot open a directory, like Windows, make the rename durable on their own.
+     *
+     * @param directory The directory holding the renamed file.
+     * @throws IOException If the directory cannot be forced.
+     */
+    static void forceDirectory(Path directory) throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(directory, StandardOpenOption.READ);
+        } catch (IOException e) {
+            return; // The directory cannot be opened on this platform
+        }
+        try (channel) {
+            channel.force(true);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package controller;
+
+import java.io.PrintStream;
+
+/**
+ * Holds the result of a {@link StrategySolver}: for every starting hand against every upcard,
+ * the expected value of staying and of hitting, the probability of the deal and the best action.
+ */
+public class StrategySolution {
+
+    private static final String[] VALUE_NAMES = {"", "A", "2", "3", "4", "5", "6", "7", "8", "9", "10"}; // Names by value
+
+    public final int numDecks;   // Number of decks in the solved shoe
+    public long elapsedNanos;    // Time taken by the solve
+
+    private final double[][][] probability = new double[12][11][11]; // Chance of each deal, by upcard and player cards
+    private final double[][][] standValue = new double[12][11][11];  // Expected value of staying
+    private final double[][][] hitValue = new double[12][11][11];    // Expected value of hitting then playing optimally
+
+    /**
+     * Constructs an empty solution.
+     *
+     * @param numDecks The number of decks in the solved shoe.
+     */
+    public StrategySolution(int numDecks) {
+        this.numDecks = numDecks;
+    }
+
+    /**
+     * Records the values of one starting hand against one upcard. Every hand is recorded by one task only.
+     *
+     * @param upcard The value of the dealer's upcard, from 2 to 11.
+     * @param first The value of the lower player card, from 1 to 10.
+     * @param second The value of the higher player card, from 1 to 10.
+     * @param p The probability of this deal from a full shoe.
+     * @param stand The expected value of staying.
+     * @param hit The expected value of hitting.
+     */
+    void record(int upcard, int first, int second, double p, double stand, double hit) {
+        probability[upcard][first][second] = p;
+        standValue[upcard][first][second] = stand;
+        hitValue[upcard][first][second] = hit;
+    }
+
+    /**
+     * Checks if hitting is the best action for a starting hand.
+     *
+     * @param upcard The value of the dealer's upcard, from 2 to 11.
+     * @param first The value of one player card, from 1 to 10.
+     * @param second The value of the other player card, from 1 to 10.
+     * @return true to hit, false to stay.
+     */
+    public boolean shouldHit(int upcard, int first, int second) {
+        int low = Math.min(first, second);
+        int high = Math.max(first, second);
+        return hitValue[upcard][low][high] > standValue[upcard][low][high];
+    }
+
+    /**
+     * Returns the expected value of a starting hand played optimally.
+     *
+     * @param upcard The value of the dealer's upcard, from 2 to 11.
+     * @param first The value of one player card, from 1 to 10.
+     * @param second The value of the other player card, from 1 to 10.
+     * @return The best expected result of the hand.
+     */
+    public double getValue(int upcard, int first, int second) {
+        int low = Math.min(first, second);
+        int high = Math.max(first, second);
+        return Math.max(hitValue[upcard][low][high], standValue[upcard][low][high]);
+    }
+
+    /**
+     * Returns the expected result of a round played optimally, over every deal of a full shoe.
+     *
+     * @return The player's expected value per round.
+     */
+    public double getExpectedValue() {
+        double value = 0;
+        for (int upcard = 2; upcard <= 11; upcard++) {
+            for (int first = 1; first <= 10; first++) {
+                for (int second = first; second <= 10; second++) {
+                    value += probability[upcard][first][second] * getValue(upcard, first, second);
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Returns the house edge against a player playing optimally.
+     *
+     * @return The house edge, as a fraction of the bet.
+     */
+    public double getHouseEdge() {
+        return -getExpectedValue();
+    }
+
+    /**
+     * Prints the best action of every starting hand against every upcard (H to hit, S to stay),
+     * followed by the house edge.
+     *
+     * @param out The stream to print to.
+     */
+    public void print(PrintStream out) {
+        out.printf("Optimal strategy, %d decks, dealer stands on 17%n", numDecks);
+        out.print("Hand   ");
+        for (int upcard = 2; upcard <= 11; upcard++) {
+            out.printf("%3s", upcard == 11 ? "A" : VALUE_NAMES[upcard]);
+        }
+        out.println();
+        for (int first = 1; first <= 10; first++) {
+            for (int second = first; second <= 10; second++) {
+                out.printf("%-7s", VALUE_NAMES[first] + "," + VALUE_NAMES[second]);
+                for (int upcard = 2; upcard <= 11; upcard++) {
+                    out.printf("%3s", shouldHit(upcard, first, second) ? "H" : "S");
+                }
+                out.println();
+            }
+        }
+        out.printf("House edge: %.4f%%%n", getHouseEdge() * 100);
+    }
+}
@@ -0,0 +1,226 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Computes the exact expected value of hitting and staying, and the best action, for every
+ * starting hand of the player against every dealer upcard, under the rules of {@link GameLogic}:
+ * the dealer stands on 17 and results are settled as in {@link GameLogic#determineWinner()},
+ * so a win pays 1, a tie pays 0 and a bust always loses.
+ * Decisions depend on the exact composition left in the shoe after the player's cards and the upcard;
+ * the other seats are not taken into account.
+ * Every (upcard, starting hand) pair is solved by its own fork-join task, and the best value of
+ * every hand state is memoized in a concurrent cache shared by all tasks.
+ */
+public class StrategySolver {
+
+    private static final int DEALER_CACHE = 200_000; // Size of the dealer cache of each thread
+
+    private final int numDecks;      // Number of decks in the shoe
+    private final ForkJoinPool pool; // Pool running the tasks
+    private final ConcurrentHashMap<DealerProbabilities.CompositionKey, Double> cache = new ConcurrentHashMap<>(); // Best value by state
+    private final ThreadLocal<DealerProbabilities> dealers =
+            ThreadLocal.withInitial(() -> new DealerProbabilities(DEALER_CACHE)); // Dealer calculator of each thread
+
+    /**
+     * Constructs a solver running on the common fork-join pool.
+     *
+     * @param numDecks The number of decks in the shoe, at most {@value DealerProbabilities#MAX_DECKS}.
+     * @throws IllegalArgumentException If the shoe is too large for the composition keys.
+     */
+    public StrategySolver(int numDecks) {
+        this(numDecks, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a solver running on the given fork-join pool.
+     *
+     * @param numDecks The number of decks in the shoe, at most {@value DealerProbabilities#MAX_DECKS}.
+     * @param pool The pool running the tasks.
+     * @throws IllegalArgumentException If the shoe is too large for the composition keys.
+     */
+    public StrategySolver(int numDecks, ForkJoinPool pool) {
+        if (numDecks < 1 || !DealerProbabilities.canPack(DealerProbabilities.fullShoe(numDecks))) {
+            throw new IllegalArgumentException("Unsupported number of decks: " + numDecks);
+        }
+        this.numDecks = numDecks;
+        this.pool = pool;
+    }
+
+    /**
+     * Solves every starting hand against every upcard.
+     *
+     * @return The strategy table, with the expected values and the house edge.
+     */
+    public StrategySolution solve() {
+        long start = System.nanoTime();
+        StrategySolution solution = new StrategySolution(numDecks);
+        List<HandTask> tasks = new ArrayList<>();
+        for (int upcard = 2; upcard <= 11; upcard++) {
+            for (int first = 1; first <= DealerProbabilities.TEN; first++) {
+                for (int second = first; second <= DealerProbabilities.TEN; second++) {
+                    tasks.add(new HandTask(upcard, first, second, solution));
+                }
+            }
+        }
+        pool.invoke(new RecursiveAction() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected void compute() {
+                invokeAll(tasks);
+            }
+        });
+        solution.elapsedNanos = System.nanoTime() - start;
+        return solution;
+    }
+
+    /**
+     * Returns the number of hand states kept in the shared cache.
+     *
+     * @return The cache size.
+     */
+    public int getCacheSize() {
+        return cache.size();
+    }
+
+    /**
+     * Computes the expected value of staying on a total.
+     *
+     * @param total The best sum of the player's hand.
+     * @param counts The counts left in the shoe, without the player's cards and the upcard.
+     * @param upcard The value of the dealer's upcard, from 2 to 11.
+     * @return The expected result of staying.
+     */
+    double standValue(int total, int[] counts, int upcard) {
+        if (total > 21) {
+            return -1;
+        }
+        double[] dealer = dealers.get().outcomes(upcard, counts);
+        double value = dealer[DealerProbabilities.BUST];
+        for (int finalTotal = 17; finalTotal <= 21; finalTotal++) {
+            double p = dealer[finalTotal - 17];
+            if (total > finalTotal) {
+                value += p;
+            } else if (total < finalTotal) {
+                value -= p;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Computes the expected value of drawing one card and then playing on optimally.
+     *
+     * @param hard The sum of the player's hand with aces counted as 1.
+     * @param ace Whether the player's hand holds an ace.
+     * @param counts The counts left in the shoe, restored before returning.
+     * @param composition The composition key of the counts.
+     * @param upcard The value of the dealer's upcard, from 2 to 11.
+     * @return The expected result of hitting.
+     */
+    double hitValue(int hard, boolean ace, int[] counts, long composition, int upcard) {
+        int total = 0;
+        for (int value = 1; value <= DealerProbabilities.TEN; value++) {
+            total += counts[value];
+        }
+        double result = 0;
+        for (int value = 1; value <= DealerProbabilities.TEN; value++) {
+            int count = counts[value];
+            if (count == 0) {
+                continue;
+            }
+            counts[value]--;
+            result += (double) count / total * bestValue(hard + value, ace || value == 1, counts,
+                    composition - (1L << DealerProbabilities.shift(value)), upcard);
+            counts[value]++;
+        }
+        return result;
+    }
+
+    /**
+     * Computes the expected value of a hand played optimally, memoized by composition and upcard.
+     * The hand itself is not part of the key, as it is the full shoe minus the composition and the upcard.
+     *
+     * @param hard The sum of the player's hand with aces counted as 1.
+     * @param ace Whether the player's hand holds an ace.
+     * @param counts The counts left in the shoe, restored before returning.
+     * @param composition The composition key of the counts.
+     * @param upcard The value of the dealer's upcard, from 2 to 11.
+     * @return The best expected result of the hand.
+     */
+    double bestValue(int hard, boolean ace, int[] counts, long composition, int upcard) {
+        if (hard > 21) {
+            return -1;
+        }
+        DealerProbabilities.CompositionKey key = new DealerProbabilities.CompositionKey(composition, upcard);
+        Double cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        int total = ace && hard + 10 <= 21 ? hard + 10 : hard;
+        double value = Math.max(standValue(total, counts, upcard), hitValue(hard, ace, counts, composition, upcard));
+        cache.put(key, value);
+        return value;
+    }
+
+    /**
+     * Fork-join task solving one starting hand against one upcard.
+     */
+    @SuppressWarnings("serial")
+    private class HandTask extends RecursiveAction {
+        private final int upcard;
+        private final int first;
+        private final int second;
+        private final StrategySolution solution;
+
+        HandTask(int upcard, int first, int second, StrategySolution solution) {
+            this.upcard = upcard;
+            this.first = first;
+            this.second = second;
+            this.solution = solution;
+        }
+
+        @Override
+        protected void compute() {
+            int[] counts = DealerProbabilities.fullShoe(numDecks);
+            int total = counts[0];
+            for (int value = 1; value <= DealerProbabilities.TEN; value++) {
+                total += counts[value];
+            }
+
+            // Probability of dealing the upcard, then the two player cards in either order
+            int upValue = upcard == 11 ? 1 : upcard;
+            double p = (double) counts[upValue]-- / total--;
+            p *= (double) counts[first]-- / total--;
+            p *= (double) counts[second]-- / total;
+            if (first != second) {
+                p *= 2;
+            }
+
+            int hard = first + second;
+            boolean ace = first == 1 || second == 1;
+            int best = ace && hard + 10 <= 21 ? hard + 10 : hard;
+            double stand = standValue(best, counts, upcard);
+            double hit = hitValue(hard, ace, counts, DealerProbabilities.pack(counts), upcard);
+            solution.record(upcard, first, second, p, stand, hit);
+        }
+    }
+
+    /**
+     * Solves a shoe and prints the strategy table and the house edge.
+     *
+     * @param args The number of decks (optional, 4 by default).
+     */
+    public static void main(String[] args) {
+        int numDecks = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        StrategySolver solver = new StrategySolver(numDecks);
+        StrategySolution solution = solver.solve();
+        solution.print(System.out);
+        System.out.printf("Solved in %.2f s, %d hand states cached%n", solution.elapsedNanos / 1e9, solver.getCacheSize());
+    }
+}
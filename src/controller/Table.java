@@ -0,0 +1,514 @@
+package controller;
+
+import model.Card;
+import model.CompositionShoe;
+import model.Deck;
+import model.Player;
+import model.Shoe;
+import model.ShuffleSource;
+
+import java.util.Random;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The Table class holds the state of one Blackjack table: its shoe, the dealer,
+ * the human player, the two bots and the statistics of the human player.
+ * Every table is independent, so one process can host as many tables as needed.
+ * A table is not thread-safe: it must be used by one thread at a time.
+ * A table dealing from a {@link CompositionShoe} has no card order, so its listener is never told of shuffles.
+ */
+public class Table {
+
+    public static final int NUM_DECKS = 4;           // Default number of decks in the shoe
+    public static final double PENETRATION = 0.75;   // Default fraction of the shoe dealt before reshuffling
+
+    public static final int PLAYER = 0;      // Seat of the human player in a settlement
+    public static final int BOT1 = 1;        // Seat of bot player 1 in a settlement
+    public static final int BOT2 = 2;        // Seat of bot player 2 in a settlement
+    public static final int SEATS = 3;       // Number of seats settled against the dealer
+    public static final int DEALER = 3;      // Seat of the dealer in events
+    public static final int TOTALS_PER_ROUND = SEATS + 1; // Final sums written per round by playRounds, dealer last
+    private static final int SEAT_BITS = 2;  // Bits of each seat's outcome in a settlement
+    private static final LongAdder ROUNDS = Metrics.getInstance().counter("rounds"); // Rounds recorded by every table
+
+    static {
+        Metrics.getInstance().rate("rounds.perSecond", ROUNDS);
+    }
+
+    private final Deck deck;      // The deck of cards, kept across rounds
+    private final Random random;  // Random source used to shuffle the shoe, or null when shuffled by a source
+    private final ShuffleSource shuffles; // Source seeding every shuffle of the shoe, or null
+
+    private final Player dealer = new Player();   // The dealer player
+    private final Player player1 = new Player();  // The human player
+    private final Player bot1 = new Player();     // Bot player 1
+    private final Player bot2 = new Player();     // Bot player 2
+    private Card hiddenCard;                      // The hidden card of the dealer
+
+    private GameListener listener;           // Receives the events of the table, or null
+    private boolean batching;                // Whether playRounds is running, publishing only the shuffles
+
+    private BotStrategy bot1Strategy = BotStrategy.DRAW_TO_SEVENTEEN; // The strategy of bot player 1
+    private BotStrategy bot2Strategy = BotStrategy.DRAW_TO_SEVENTEEN; // The strategy of bot player 2
+
+    public int gamesPlayed = 0;  // Number of games played
+    public int gamesWon = 0;     // Number of games won by the player
+    public int gamesLost = 0;    // Number of games lost by the player
+
+    /**
+     * Constructs a table with a 4-deck shoe, every shoe seeded by the strong generator of the platform
+     * and shuffled with SecureRandom.
+     */
+    public Table() {
+        this(NUM_DECKS, PENETRATION, new ShuffleSource(ShuffleSource.Algorithm.SECURE));
+    }
+
+    /**
+     * Constructs a table with the given shoe settings and random source.
+     *
+     * @param numDecks The number of decks in the shoe.
+     * @param penetration The fraction of the shoe dealt before the cut card comes out.
+     * @param random The random source used to shuffle the shoe.
+     */
+    public Table(int numDecks, double penetration, Random random) {
+        this(new Deck(new Shoe(numDecks, penetration)), random, null);
+    }
+
+    /**
+     * Constructs a table whose every shoe is shuffled from a seed drawn from the source.
+     * The seed of the current shoe is recorded by {@link Shoe#getSeed()}.
+     *
+     * @param numDecks The number of decks in the shoe.
+     * @param penetration The fraction of the shoe dealt before the cut card comes out.
+     * @param shuffles The source of the seed of every shoe.
+     */
+    public Table(int numDecks, double penetration, ShuffleSource shuffles) {
+        this(new Deck(new Shoe(numDecks, penetration)), null, shuffles);
+    }
+
+    /**
+     * Constructs a table dealing from a composition shoe, for shoes too large to store or infinite.
+     *
+     * @param shoe The shoe counting the cards left of each rank and suit.
+     * @param random The random source drawing the cards.
+     */
+    public Table(CompositionShoe shoe, Random random) {
+        this(new Deck(shoe), random, null);
+    }
+
+    /**
+     * Constructs a table dealing from a composition shoe, every shoe drawn from a seed drawn from the source.
+     *
+     * @param shoe The shoe counting the cards left of each rank and suit.
+     * @param shuffles The source of the seed of every shoe.
+     */
+    public Table(CompositionShoe shoe, ShuffleSource shuffles) {
+        this(new Deck(shoe), null, shuffles);
+    }
+
+    /**
+     * Constructs a table and shuffles its deck for the first round.
+     *
+     * @param deck The deck, kept across rounds.
+     * @param random The random source used to shuffle the deck, or null.
+     * @param shuffles The source of the seed of every shoe, used when there is no random source.
+     */
+    private Table(Deck deck, Random random, ShuffleSource shuffles) {
+        this.deck = deck;
+        this.random = random;
+        this.shuffles = shuffles;
+        shuffle();
+    }
+
+    /**
+     * Shuffles the deck with the random source of the table, or from a seed drawn from its shuffle source.
+     */
+    private void shuffle() {
+        if (random != null) {
+            deck.shuffle(random);
+        } else {
+            deck.shuffle(shuffles);
+        }
+    }
+
+    /**
+     * Starts a new round: reshuffles the shoe if the cut card has come out,
+     * then deals two cards to the dealer and to every player.
+     * If the shoe runs out during the round, its discards are reshuffled to finish it.
+     * The players are reused from one round to the next, with their hands emptied.
+     */
+    public void startRound() {
+        if (deck.isCutCardOut()) {
+            shuffle();  // Reshuffle the whole shoe once the cut card is out
+            if (listener != null && deck.getShoe() != null) {
+                listener.shoeShuffled(deck.getShoe());
+            }
+        }
+        deck.startRound();
+        clearHands();
+
+        hiddenCard = deal(dealer, DEALER);  // Draw the dealer's hidden card and add it to dealer's hand
+        deal(dealer, DEALER);  // Draw another card for the dealer
+
+        // Draw two cards each for the human player and bots
+        for (int i = 0; i < 2; i++) {
+            deal(player1, PLAYER);
+            deal(bot1, BOT1);
+            deal(bot2, BOT2);
+        }
+        if (listener != null && !batching) {
+            listener.roundStarted();
+        }
+    }
+
+    /**
+     * Empties the hands of the dealer and of every player.
+     */
+    void clearHands() {
+        dealer.clearHand();   // Reset the dealer
+        player1.clearHand();  // Reset the human player
+        bot1.clearHand();     // Reset bot player 1
+        bot2.clearHand();     // Reset bot player 2
+    }
+
+    /**
+     * Puts a card back into a seat's hand without drawing it from the shoe, to rebuild a recorded round.
+     * The first card restored to the dealer becomes the hidden card.
+     *
+     * @param seat The seat: {@link #PLAYER}, {@link #BOT1}, {@link #BOT2} or {@link #DEALER}.
+     * @param card The card dealt to the seat.
+     */
+    void restoreCard(int seat, Card card) {
+        Player player;
+        if (seat == DEALER) {
+            player = dealer;
+            if (dealer.getHand().isEmpty()) {
+                hiddenCard = card;
+            }
+        } else if (seat == PLAYER) {
+            player = player1;
+        } else if (seat == BOT1) {
+            player = bot1;
+        } else {
+            player = bot2;
+        }
+        player.addToHand(card);
+    }
+
+    /**
+     * Draws a card for the human player.
+     */
+    public void playerHit() {
+        deal(player1, PLAYER);  // Aces are reduced by the hand
+    }
+
+    /**
+     * Plays the dealer's turn by drawing cards until the sum is 17 or higher.
+     */
+    public void dealerTurn() {
+        while (dealer.getSum() < 17) {
+            deal(dealer, DEALER); // Aces are reduced by the hand as cards are added
+        }
+        endTurn(DEALER);
+    }
+
+    /**
+     * Plays bot player 1's turn with its strategy, by default drawing cards until the sum is 17 or higher.
+     */
+    public void bot1Turn() {
+        playSeat(bot1, BOT1, bot1Strategy);
+        endTurn(BOT1);
+    }
+
+    /**
+     * Plays bot player 2's turn with its strategy, by default drawing cards until the sum is 17 or higher.
+     */
+    public void bot2Turn() {
+        playSeat(bot2, BOT2, bot2Strategy);
+        endTurn(BOT2);
+    }
+
+    /**
+     * Draws cards for a seat as long as its strategy decides to hit against the dealer's upcard.
+     *
+     * @param player The player drawing cards.
+     * @param seat The seat of the player in events.
+     * @param strategy The strategy deciding each draw.
+     */
+    public void playSeat(Player player, int seat, BotStrategy strategy) {
+        int upcard = getDealerUpcard();
+        while (strategy.shouldHit(player.getSum(), player.isSoft(), upcard)) {
+            deal(player, seat);
+        }
+    }
+
+    /**
+     * Draws a card for a seat and publishes it.
+     *
+     * @param player The player receiving the card.
+     * @param seat The seat of the player in events.
+     * @return The card dealt.
+     */
+    private Card deal(Player player, int seat) {
+        boolean reshuffling = deck.remaining() == 0; // The draw reshuffles the discards
+        Card card = deck.drawCard();
+        player.addToHand(card);
+        if (reshuffling && listener != null && deck.getShoe() != null) {
+            listener.discardsReshuffled(deck.getShoe());
+        }
+        if (listener != null && !batching) {
+            listener.cardDealt(seat, card);
+        }
+        return card;
+    }
+
+    /**
+     * Publishes the end of a seat's turn.
+     *
+     * @param seat The seat whose turn ended.
+     */
+    void endTurn(int seat) {
+        if (listener != null && !batching) {
+            listener.turnEnded(seat);
+        }
+    }
+
+    /**
+     * Sets the listener receiving the events of the table, usually an {@link EventBus}.
+     *
+     * @param listener The listener, or null to publish nothing.
+     */
+    public void setListener(GameListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Retrieves the listener receiving the events of the table.
+     *
+     * @return The listener, or null if none is set.
+     */
+    public GameListener getListener() {
+        return listener;
+    }
+
+    /**
+     * Returns the value of the dealer's visible card, the one dealt after the hidden card.
+     *
+     * @return The value of the upcard, from 2 to 11 for an ace.
+     */
+    public int getDealerUpcard() {
+        return dealer.getHand().get(1).getValue();
+    }
+
+    /**
+     * Sets the strategy of bot player 1.
+     *
+     * @param strategy The strategy deciding when bot player 1 hits.
+     */
+    public void setBot1Strategy(BotStrategy strategy) {
+        this.bot1Strategy = strategy;
+    }
+
+    /**
+     * Sets the strategy of bot player 2.
+     *
+     * @param strategy The strategy deciding when bot player 2 hits.
+     */
+    public void setBot2Strategy(BotStrategy strategy) {
+        this.bot2Strategy = strategy;
+    }
+
+    /**
+     * Settles the current round without changing anything and without allocating.
+     *
+     * @return The outcome ordinal of every seat, packed with {@link #SEAT_BITS} bits per seat;
+     *         read it with {@link #outcome(int, int)}.
+     */
+    public int settleRound() {
+        int dealerSum = dealer.getSum();
+        return settle(player1.getSum(), dealerSum) << (PLAYER * SEAT_BITS)
+                | settle(bot1.getSum(), dealerSum) << (BOT1 * SEAT_BITS)
+                | settle(bot2.getSum(), dealerSum) << (BOT2 * SEAT_BITS);
+    }
+
+    /**
+     * Settles one hand against the dealer.
+     *
+     * @param sum The sum of the hand.
+     * @param dealerSum The sum of the dealer's hand.
+     * @return The ordinal of the {@link Outcome} of the hand.
+     */
+    public static int settle(int sum, int dealerSum) {
+        if (sum > 21) {
+            return Outcome.BUST.ordinal();
+        }
+        if (tiesDealer(sum, dealerSum)) {
+            return Outcome.PUSH.ordinal();
+        }
+        return beatsDealer(sum, dealerSum) ? Outcome.WIN.ordinal() : Outcome.LOSE.ordinal();
+    }
+
+    /**
+     * Reads the outcome of one seat from a settlement.
+     *
+     * @param settlement The settlement returned by {@link #settleRound()}.
+     * @param seat The seat: {@link #PLAYER}, {@link #BOT1} or {@link #BOT2}.
+     * @return The outcome of the seat.
+     */
+    public static Outcome outcome(int settlement, int seat) {
+        return Outcome.of(settlement >>> (seat * SEAT_BITS) & ((1 << SEAT_BITS) - 1));
+    }
+
+    /**
+     * Plays full rounds back to back: the deal, the player's turn with the given strategy,
+     * the dealer's turn, both bots' turns and the settlement.
+     * Only the shuffles are published, so a journal keeps the order of every shoe; nothing is printed
+     * or allocated, and the statistics are not changed.
+     *
+     * @param rounds The number of rounds to play.
+     * @param playerStrategy The strategy playing the human player's seat.
+     * @param settlements Receives the {@link #settleRound()} result of each round; at least {@code rounds} long.
+     * @param totals Receives the final sums of each round, {@link #TOTALS_PER_ROUND} per round in the order
+     *               player, bot 1, bot 2, dealer; at least {@code rounds * TOTALS_PER_ROUND} long, or null.
+     * @throws IllegalArgumentException If an array is too short for the rounds, before any round is played.
+     */
+    public void playRounds(int rounds, BotStrategy playerStrategy, int[] settlements, byte[] totals) {
+        if (settlements.length < rounds) {
+            throw new IllegalArgumentException(rounds + " rounds do not fit " + settlements.length + " settlements");
+        }
+        if (totals != null && totals.length / TOTALS_PER_ROUND < rounds) {
+            throw new IllegalArgumentException(rounds + " rounds do not fit " + totals.length + " totals");
+        }
+        batching = true;
+        try {
+            for (int round = 0; round < rounds; round++) {
+                startRound();
+                playSeat(player1, PLAYER, playerStrategy);
+                dealerTurn();
+                bot1Turn();
+                bot2Turn();
+                settlements[round] = settleRound();
+                if (totals != null) {
+                    int offset = round * TOTALS_PER_ROUND;
+                    totals[offset] = (byte) player1.getSum();
+                    totals[offset + 1] = (byte) bot1.getSum();
+                    totals[offset + 2] = (byte) bot2.getSum();
+                    totals[offset + 3] = (byte) dealer.getSum();
+                }
+            }
+        } finally {
+            batching = false;
+        }
+    }
+
+    /**
+     * Records a settled round in the statistics of the human player.
+     * Any outcome other than a win counts as a game lost.
+     *
+     * @param settlement The settlement returned by {@link #settleRound()}.
+     */
+    public void recordResult(int settlement) {
+        ROUNDS.increment();
+        restoreResult(settlement);
+    }
+
+    /**
+     * Counts a recorded round in the statistics of the human player, without counting it
+     * in the {@code rounds} metric of the rounds played by this process.
+     *
+     * @param settlement The settlement returned by {@link #settleRound()} when the round was played.
+     */
+    void restoreResult(int settlement) {
+        gamesPlayed++;
+        if (outcome(settlement, PLAYER) == Outcome.WIN) {
+            gamesWon++;
+        } else {
+            gamesLost++;
+        }
+    }
+
+    /**
+     * Resets the statistics of the human player.
+     */
+    public void resetStats() {
+        gamesPlayed = 0;
+        gamesWon = 0;
+        gamesLost = 0;
+    }
+
+    /**
+     * Checks if a hand beats the dealer.
+     *
+     * @param sum The sum of the hand.
+     * @param dealerSum The sum of the dealer's hand.
+     * @return true if the hand is not bust and beats the dealer or the dealer is bust.
+     */
+    static boolean beatsDealer(int sum, int dealerSum) {
+        return sum <= 21 && (sum > dealerSum || dealerSum > 21);
+    }
+
+    /**
+     * Checks if a hand ties with the dealer.
+     *
+     * @param sum The sum of the hand.
+     * @param dealerSum The sum of the dealer's hand.
+     * @return true if the hand is not bust and equals the dealer's sum.
+     */
+    static boolean tiesDealer(int sum, int dealerSum) {
+        return sum == dealerSum && sum <= 21;
+    }
+
+    /**
+     * Retrieves the deck of the table.
+     *
+     * @return The deck, backed by the table's shoe.
+     */
+    public Deck getDeck() {
+        return deck;
+    }
+
+    /**
+     * Retrieves the dealer player object.
+     *
+     * @return The dealer player object.
+     */
+    public Player getDealer() {
+        return dealer;
+    }
+
+    /**
+     * Retrieves the human player object.
+     *
+     * @return The human player object.
+     */
+    public Player getPlayer1() {
+        return player1;
+    }
+
+    /**
+     * Retrieves bot player 1 object.
+     *
+     * @return The bot player 1 object.
+     */
+    public Player getBot1() {
+        return bot1;
+    }
+
+    /**
+     * Retrieves bot player 2 object.
+     *
+     * @return The bot player 2 object.
+     */
+    public Player getBot2() {
+        return bot2;
+    }
+
+    /**
+     * Retrieves the hidden card of the dealer.
+     *
+     * @return The hidden card of the dealer.
+     */
+    public Card getHiddenCard() {
+        return hiddenCard;
+    }
+}
@@ -0,0 +1,10 @@
+package controller;
+
+/**
+ * The decisions that can be queued on a table run by the {@link TableScheduler}.
+ */
+public enum TableCommand {
+    DEAL,  // Start a new round, as GameLogic.startGame()
+    HIT,   // Draw a card for the player, as GameLogic.hitAction()
+    STAY   // Let the dealer and the bots play and settle the round, as GameLogic.stayAction()
+}
@@ -0,0 +1,319 @@
+package controller;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The TableScheduler hosts many independent tables in one process.
+ * Every table is a lightweight actor: player decisions are queued as {@link TableCommand}s
+ * in a bounded mailbox, and the table runs them one at a time on a shared pool of threads,
+ * so tens of thousands of tables only cost their state and their mailbox.
+ * A command is rejected when the mailbox of its table is full, which gives callers backpressure.
+ */
+public class TableScheduler {
+
+    private static final int BATCH = 32; // Commands run by a table before giving its thread back
+    private static final LongAdder ACTIVE_TABLES = new LongAdder(); // Tables open in every scheduler
+    private static final LongAdder FAILED_COMMANDS = Metrics.getInstance().counter("commands.failed"); // Commands that threw in every scheduler
+
+    static {
+        Metrics.getInstance().gauge("tables.active", ACTIVE_TABLES::sum);
+    }
+
+    private final ExecutorService executor;  // Pool running the tables
+    private final int mailboxCapacity;       // Commands a table can queue before rejecting
+    private final Map<Integer, TableActor> tables = new ConcurrentHashMap<>(); // Open tables by id
+    private final AtomicInteger nextId = new AtomicInteger(); // Id of the next table
+
+    private final LongAdder queued = new LongAdder();        // Commands waiting in all mailboxes
+    private final LongAdder rejected = new LongAdder();      // Commands rejected by full mailboxes
+    private final LongAdder decisions = new LongAdder();     // Commands run
+    private final LongAdder failed = new LongAdder();        // Commands that threw an exception
+    private final LongAdder latencyNanos = new LongAdder();  // Total time from queueing to the end of the run
+    private final AtomicLong maxLatencyNanos = new AtomicLong(); // Longest time from queueing to the end of the run
+
+    /**
+     * Constructs a scheduler running the tables on one thread per core.
+     *
+     * @param mailboxCapacity The number of commands a table can queue before rejecting.
+     */
+    public TableScheduler(int mailboxCapacity) {
+        this(new ForkJoinPool(Runtime.getRuntime().availableProcessors(),
+                ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true), mailboxCapacity);
+    }
+
+    /**
+     * Constructs a scheduler running the tables on the given executor.
+     *
+     * @param executor The executor running the tables.
+     * @param mailboxCapacity The number of commands a table can queue before rejecting.
+     */
+    public TableScheduler(ExecutorService executor, int mailboxCapacity) {
+        this.executor = executor;
+        this.mailboxCapacity = mailboxCapacity;
+    }
+
+    /**
+     * Opens a table on this scheduler. The table must not be used by anyone else afterwards.
+     *
+     * @param table The table to host.
+     * @return The id used to queue commands on the table.
+     */
+    public int openTable(Table table) {
+        int id = nextId.getAndIncrement();
+        tables.put(id, new TableActor(table));
+        ACTIVE_TABLES.increment();
+        return id;
+    }
+
+    /**
+     * Closes a table. Commands already queued are dropped.
+     *
+     * @param tableId The id of the table.
+     */
+    public void closeTable(int tableId) {
+        TableActor actor = tables.remove(tableId);
+        if (actor != null) {
+            ACTIVE_TABLES.decrement();
+            while (actor.mailbox.poll() != null) {
+                queued.decrement();
+            }
+        }
+    }
+
+    /**
+     * Queues a command on a table without blocking.
+     *
+     * @param tableId The id of the table.
+     * @param command The command to run.
+     * @return true if the command was queued, false if the table is closed, its mailbox is full
+     *         or the scheduler is shut down.
+     */
+    public boolean submit(int tableId, TableCommand command) {
+        TableActor actor = tables.get(tableId);
+        if (actor == null) {
+            rejected.increment();
+            return false;
+        }
+        Envelope envelope = new Envelope(command, System.nanoTime());
+        queued.increment();  // Before the offer, so the actor never decrements first
+        if (!actor.mailbox.offer(envelope)) {
+            queued.decrement();
+            rejected.increment();
+            return false;
+        }
+        if (!actor.schedule() && actor.mailbox.remove(envelope)) {
+            queued.decrement();
+            rejected.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Stops the scheduler and waits for the running tables to finish their current batch.
+     * Tables still running after a minute are interrupted.
+     *
+     * @return true if every table finished in time, false if they had to be interrupted.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    public boolean shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (executor.awaitTermination(1, TimeUnit.MINUTES)) {
+            return true;
+        }
+        executor.shutdownNow();
+        return false;
+    }
+
+    /**
+     * Returns the number of open tables.
+     *
+     * @return The table count.
+     */
+    public int getTableCount() {
+        return tables.size();
+    }
+
+    /**
+     * Returns the number of commands waiting in all mailboxes.
+     *
+     * @return The total queue depth.
+     */
+    public long getQueueDepth() {
+        return queued.sum();
+    }
+
+    /**
+     * Returns the number of commands rejected because a mailbox was full or a table was closed.
+     *
+     * @return The rejected command count.
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Returns the number of commands run.
+     *
+     * @return The decision count.
+     */
+    public long getDecisions() {
+        return decisions.sum();
+    }
+
+    /**
+     * Returns the number of commands that threw an exception. The table goes on with its next command.
+     * The commands failed in every scheduler are also counted by the {@code commands.failed} metric.
+     *
+     * @return The failed command count.
+     */
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    /**
+     * Returns the average time between queueing a command and the end of its run.
+     *
+     * @return The average decision latency in nanoseconds.
+     */
+    public double getAverageLatencyNanos() {
+        long count = decisions.sum();
+        return count == 0 ? 0 : (double) latencyNanos.sum() / count;
+    }
+
+    /**
+     * Returns the longest time between queueing a command and the end of its run.
+     *
+     * @return The maximum decision latency in nanoseconds.
+     */
+    public long getMaxLatencyNanos() {
+        return maxLatencyNanos.get();
+    }
+
+    /**
+     * A command queued on a table, with the time it was queued.
+     */
+    private static final class Envelope {
+        final TableCommand command;
+        final long queuedNanos;
+
+        Envelope(TableCommand command, long queuedNanos) {
+            this.command = command;
+            this.queuedNanos = queuedNanos;
+        }
+    }
+
+    /**
+     * Runs the commands of one table one at a time.
+     * The actor is on the executor only while it has commands to run.
+     */
+    private final class TableActor implements Runnable {
+        final Table table;
+        final BlockingQueue<Envelope> mailbox = new ArrayBlockingQueue<>(mailboxCapacity);
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        boolean inRound; // Whether a round has been dealt and not settled yet
+
+        TableActor(Table table) {
+            this.table = table;
+        }
+
+        /**
+         * Puts the actor on the executor unless it is already there.
+         *
+         * @return true if the actor is on the executor, false if the executor is shut down.
+         */
+        boolean schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public void run() {
+            try {
+                for (int i = 0; i < BATCH; i++) {
+                    Envelope envelope = mailbox.poll();
+                    if (envelope == null) {
+                        break;
+                    }
+                    queued.decrement();
+                    try {
+                        apply(envelope.command);
+                    } catch (RuntimeException e) {
+                        // A failing command must not stop the table from running the next ones
+                        failed.increment();
+                        FAILED_COMMANDS.increment();
+                        inRound = false;
+                    }
+                    long latency = System.nanoTime() - envelope.queuedNanos;
+                    decisions.increment();
+                    latencyNanos.add(latency);
+                    maxLatencyNanos.accumulateAndGet(latency, Math::max);
+                }
+            } finally {
+                scheduled.set(false);
+                if (!mailbox.isEmpty()) {
+                    schedule();
+                }
+            }
+        }
+
+        /**
+         * Runs one command with the round flow of {@link GameLogic}.
+         * Commands that do not fit the state of the round are ignored.
+         *
+         * @param command The command to run.
+         */
+        void apply(TableCommand command) {
+            switch (command) {
+                case DEAL:
+                    if (!inRound) {
+                        table.startRound();
+                        inRound = true;
+                    }
+                    break;
+                case HIT:
+                    if (inRound) {
+                        table.playerHit();
+                        if (table.getPlayer1().getSum() >= 21) {
+                            finishRound();
+                        }
+                    }
+                    break;
+                case STAY:
+                    if (inRound) {
+                        finishRound();
+                    }
+                    break;
+            }
+        }
+
+        /**
+         * Lets the dealer and the bots play, then settles the round.
+         */
+        void finishRound() {
+            table.dealerTurn();
+            table.bot1Turn();
+            table.bot2Turn();
+            table.recordResult(table.settleRound());
+            inRound = false;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package controller;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event covering the turn of one seat, or one hit of the human player.
+ * Its duration is the time taken by the turn.
+ */
+@Name("jblackjack.Turn")
+@Label("Turn")
+@Category("JBlackJack")
+@Description("A seat drawing its cards")
+final class TurnEvent extends Event {
+
+    @Label("Phase")
+    @Description("The method of GameLogic playing the turn")
+    String phase;
+
+    @Label("Seat")
+    @Description("0 for the human player, 1 and 2 for the bots, 3 for the dealer")
+    int seat;
+
+    @Label("Cards")
+    @Description("Cards in the hand of the seat at the end of the turn")
+    int cards;
+
+    @Label("Shoe Depth")
+    @Description("Cards left in the shoe at the end of the turn")
+    int shoeRemaining;
+}
@@ -1,18 +1,39 @@
 package model;
 
-import java.util.stream.IntStream;
-
 /**
  * Class representing a playing card.
  * Each card has a suit, rank, and a value.
+ * Cards are immutable: the 52 standard cards are shared canonical instances,
+ * retrieved with {@link #of(int, int)}, {@link #of(int)} or {@link #parse(String)},
+ * so two standard cards are equal only if they are the same object.
  */
 public class Card {
-    public String suit; // The suit of the card (e.g., "Hearts", "Diamonds", etc.)
-    public String rank; // The rank of the card (e.g., "Ace", "King", "Queen", etc.)
-    public int value;   // The numerical value of the card in the game
+    public static final String[] SUITS = {"H", "D", "C", "S"}; // The standard suits
+    public static final String[] RANKS = {"2", "3", "4", "5", "6", "7", "8", "9", "10", "J", "Q", "K", "A"}; // The standard ranks
+    public static final int[] VALUES = {2, 3, 4, 5, 6, 7, 8, 9, 10, 10, 10, 10, 11}; // The value of each rank
+    public static final int ACE = 12; // The index of the ace in RANKS
+
+    private static final int[] ACE_VALUES = {2, 3, 4, 5, 6, 7, 8, 9, 10, 10, 10, 10, 10}; // Results of getValueOfAce() by rank
+    private static final Card[] CANONICAL = new Card[SUITS.length * RANKS.length]; // The shared standard cards by ordinal
+
+    static {
+        for (int suit = 0; suit < SUITS.length; suit++) {
+            for (int rank = 0; rank < RANKS.length; rank++) {
+                CANONICAL[suit * RANKS.length + rank] = new Card(SUITS[suit], RANKS[rank], VALUES[rank]);
+            }
+        }
+    }
+
+    public final String suit; // The suit of the card (e.g., "Hearts", "Diamonds", etc.)
+    public final String rank; // The rank of the card (e.g., "Ace", "King", "Queen", etc.)
+    public final int value;   // The numerical value of the card in the game
+
+    private final int suitIndex; // The index of the suit in SUITS, or -1 for a non-standard suit
+    private final int rankIndex; // The index of the rank in RANKS, or -1 for a non-standard rank
 
     /**
      * Constructs a card with specified suit, rank, and value.
+     * Standard cards should be retrieved with {@link #of(int, int)} instead, to share the canonical instances.
      * @param suit The suit of the card (e.g., "Hearts", "Diamonds", etc.).
      * @param rank The rank of the card (e.g., "Ace", "King", "Queen", etc.).
      * @param value The numerical value of the card in the game (e.g., 2-10, or special values for face cards).
@@ -21,6 +42,58 @@ public class Card {
         this.suit = suit;
         this.rank = rank;
         this.value = value;
+        this.suitIndex = indexOf(SUITS, suit);
+        this.rankIndex = indexOf(RANKS, rank);
+    }
+
+    /**
+     * Retrieves the canonical card of a suit and a rank.
+     * @param suitIndex The index of the suit in {@link #SUITS}.
+     * @param rankIndex The index of the rank in {@link #RANKS}.
+     * @return The shared card instance.
+     */
+    public static Card of(int suitIndex, int rankIndex) {
+        return CANONICAL[suitIndex * RANKS.length + rankIndex];
+    }
+
+    /**
+     * Retrieves the canonical card of an ordinal.
+     * @param ordinal The ordinal of the card, {@code suitIndex * 13 + rankIndex}.
+     * @return The shared card instance.
+     */
+    public static Card of(int ordinal) {
+        return CANONICAL[ordinal];
+    }
+
+    /**
+     * Retrieves the canonical card written in the {@link #toString()} form (e.g., "10-H").
+     * @param text The card in "rank-suit" form.
+     * @return The shared card instance.
+     * @throws IllegalArgumentException If the text is not a standard card.
+     */
+    public static Card parse(String text) {
+        int dash = text.indexOf('-');
+        int rankIndex = dash < 0 ? -1 : indexOf(RANKS, text.substring(0, dash));
+        int suitIndex = dash < 0 ? -1 : indexOf(SUITS, text.substring(dash + 1));
+        if (rankIndex < 0 || suitIndex < 0) {
+            throw new IllegalArgumentException("Not a standard card: " + text);
+        }
+        return of(suitIndex, rankIndex);
+    }
+
+    /**
+     * Finds the index of a name in a table.
+     * @param names The table of names.
+     * @param name The name to find.
+     * @return The index of the name, or -1 if it is not in the table.
+     */
+    private static int indexOf(String[] names, String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
     }
 
     /**
@@ -47,6 +120,30 @@ public class Card {
         return value;
     }
 
+    /**
+     * Retrieves the index of the suit of the card.
+     * @return The index of the suit in {@link #SUITS}, or -1 for a non-standard suit.
+     */
+    public int getSuitIndex() {
+        return suitIndex;
+    }
+
+    /**
+     * Retrieves the index of the rank of the card.
+     * @return The index of the rank in {@link #RANKS}, or -1 for a non-standard rank.
+     */
+    public int getRankIndex() {
+        return rankIndex;
+    }
+
+    /**
+     * Retrieves the ordinal of the card, which is also its code in a {@link Shoe}.
+     * @return The ordinal {@code suitIndex * 13 + rankIndex}, or -1 for a non-standard card.
+     */
+    public int ordinal() {
+        return suitIndex < 0 || rankIndex < 0 ? -1 : suitIndex * RANKS.length + rankIndex;
+    }
+
     /**
      * Returns a string representation of the card.
      * The format is "rank-suit" (e.g., "Ace-Hearts").
@@ -64,10 +161,7 @@ public class Card {
      */
     public int getValueOfAce() {
         // If the rank is Ace, Jack, Queen, or King, return 10; otherwise, parse rank to integer
-        return IntStream.of(10, 10, 10, 11)
-                .filter(val -> rank.equals("A") || rank.equals("J") || rank.equals("Q") || rank.equals("K"))
-                .findFirst()
-                .orElse(Integer.parseInt(rank));
+        return rankIndex >= 0 ? ACE_VALUES[rankIndex] : Integer.parseInt(rank);
     }
 
     /**
@@ -75,15 +169,15 @@ public class Card {
      * @return true if the card is an Ace, false otherwise.
      */
     public boolean isAce() {
-        return rank.equals("A");
+        return rankIndex == ACE;
     }
 
     /**
      * Retrieves the file path of the image representing the card.
-     * The image file path is assumed to be under "cards/" directory and named "rank-suit.png".
+     * The image file path is assumed to be under "Cards/" directory and named "rank-suit.png".
      * @return The file path of the card image.
      */
     public String getImagePath() {
-        return "cards/" + toString() + ".png";
+        return "Cards/" + toString() + ".png";
     }
 }
@@ -0,0 +1,234 @@
+package model;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Represents a shoe by the number of cards left of each rank and suit instead of their order,
+ * so its memory does not depend on the number of decks.
+ * A card is drawn by weighted sampling: a rank with probability proportional to its remaining count,
+ * then a suit of that rank the same way, which gives the same distribution as drawing from a shuffled shoe.
+ * An infinite shoe never runs out and draws every card code with the same probability.
+ * If a finite shoe runs out during a round, the discards of the previous rounds are put back
+ * and the round goes on, like {@link Shoe#reshuffleDiscards()}.
+ * Card codes are those of {@link Shoe}.
+ */
+public class CompositionShoe {
+    private final int numDecks;  // The number of standard decks in the shoe, 0 if infinite
+    private final int cutCard;   // Cards dealt before the shoe must be reshuffled
+    private final int[] rankCounts = new int[Shoe.RANK_COUNT]; // Cards left of each rank
+    private final int[] codeCounts = new int[Shoe.CODES];      // Cards left of each code
+    private final int[] inPlay = new int[Shoe.CODES];          // Cards of each code drawn in the current round
+    private int remaining;       // Cards left in the shoe
+    private boolean reshuffled;  // Whether the discards were put back during a round since the last shuffle
+    private RandomGenerator random; // The random source of the draws since the last shuffle
+    private ShuffleSource.Algorithm algorithm; // Generator of the current draws, or null if it was not seeded
+    private long seed;           // Seed of the current draws, when the algorithm is known
+
+    /**
+     * Constructs a finite shoe with the specified number of standard decks and penetration.
+     * The shoe must be shuffled before the first card is drawn.
+     * @param numDecks The number of standard decks in the shoe.
+     * @param penetration The fraction of the shoe dealt before the cut card comes out, between 0 and 1.
+     * @throws IllegalArgumentException If the number of decks is not positive or too large to count the cards
+     *         in an int, or the penetration is not greater than 0 and at most 1.
+     */
+    public CompositionShoe(int numDecks, double penetration) {
+        if (numDecks <= 0 || numDecks > Integer.MAX_VALUE / Shoe.CODES) {
+            throw new IllegalArgumentException("Number of decks out of range: " + numDecks);
+        }
+        if (!(penetration > 0 && penetration <= 1)) {
+            throw new IllegalArgumentException("Penetration must be greater than 0 and at most 1: " + penetration);
+        }
+        this.numDecks = numDecks;
+        this.cutCard = (int) ((long) Shoe.CODES * numDecks * penetration);
+    }
+
+    /**
+     * Constructs an infinite shoe, where every card drawn leaves the composition unchanged.
+     * The shoe must be shuffled before the first card is drawn, to give it its random source.
+     */
+    public CompositionShoe() {
+        this.numDecks = 0;
+        this.cutCard = 0;
+    }
+
+    /**
+     * Puts every card back into the shoe. The cards are drawn with the given random source from now on.
+     * @param random The random source used to draw the cards.
+     */
+    public void shuffle(RandomGenerator random) {
+        this.random = random;
+        for (int code = 0; code < Shoe.CODES; code++) {
+            codeCounts[code] = numDecks;
+        }
+        for (int rank = 0; rank < Shoe.RANK_COUNT; rank++) {
+            rankCounts[rank] = numDecks * Card.SUITS.length;
+        }
+        remaining = numDecks * Shoe.CODES;
+        Arrays.fill(inPlay, 0);
+        reshuffled = false;
+        algorithm = null;
+    }
+
+    /**
+     * Puts every card back into the shoe and draws them with a generator seeded from the source,
+     * recording the seed of the new draws.
+     * @param source The source of the seed and of the generator.
+     * @return The seed of the new draws.
+     */
+    public long shuffle(ShuffleSource source) {
+        long shoeSeed = source.nextSeed();
+        replay(source.getAlgorithm(), shoeSeed);
+        return shoeSeed;
+    }
+
+    /**
+     * Puts every card back into the shoe and draws them again in the order recorded by a seed.
+     * @param algorithm The algorithm of the recorded shuffle.
+     * @param seed The recorded seed.
+     */
+    public void replay(ShuffleSource.Algorithm algorithm, long seed) {
+        shuffle(ShuffleSource.generator(algorithm, seed));
+        this.algorithm = algorithm;
+        this.seed = seed;
+    }
+
+    /**
+     * Retrieves the seed of the current draws, which {@link #replay(ShuffleSource.Algorithm, long)} reproduces.
+     * @return The seed of the last seeded shuffle.
+     * @throws IllegalStateException If the shoe was last shuffled without a seed.
+     */
+    public long getSeed() {
+        if (algorithm == null) {
+            throw new IllegalStateException("The shoe was not shuffled from a seed");
+        }
+        return seed;
+    }
+
+    /**
+     * Draws a card: a rank weighted by the cards left of it, then a suit of that rank weighted the same way.
+     * A finite shoe that has run out first puts back the discards of the previous rounds.
+     * @return The code of the card drawn.
+     * @throws IllegalStateException If the current round holds every card of a finite shoe.
+     */
+    public int drawCode() {
+        if (numDecks == 0) {
+            return random.nextInt(Shoe.CODES);
+        }
+        if (remaining == 0) {
+            reshuffleDiscards();
+        }
+        int pick = random.nextInt(remaining);
+        int rank = 0;
+        while (pick >= rankCounts[rank]) {
+            pick -= rankCounts[rank];
+            rank++;
+        }
+        int code = rank; // The code of the rank in the first suit
+        while (pick >= codeCounts[code]) {
+            pick -= codeCounts[code];
+            code += Shoe.RANK_COUNT;
+        }
+        rankCounts[rank]--;
+        codeCounts[code]--;
+        inPlay[code]++;
+        remaining--;
+        return code;
+    }
+
+    /**
+     * Marks the start of a round: the cards drawn from now on are in play until the next round starts.
+     */
+    public void startRound() {
+        Arrays.fill(inPlay, 0);
+    }
+
+    /**
+     * Puts the discards of the previous rounds back into the shoe, leaving out the cards of the current round
+     * which stay in play, so the round can go on. The cut card is then out, so the whole shoe is reshuffled
+     * before the next round.
+     * @throws IllegalStateException If the current round holds every card, or the shoe is infinite.
+     */
+    public void reshuffleDiscards() {
+        int left = 0;
+        for (int code = 0; code < Shoe.CODES; code++) {
+            left += numDecks - inPlay[code];
+        }
+        if (left == 0) {
+            throw new IllegalStateException("No discards to reshuffle: the round holds every card of the shoe");
+        }
+        Arrays.fill(rankCounts, 0);
+        for (int code = 0; code < Shoe.CODES; code++) {
+            codeCounts[code] = numDecks - inPlay[code];
+            rankCounts[Shoe.rankOf(code)] += codeCounts[code];
+        }
+        remaining = left;
+        reshuffled = true;
+    }
+
+    /**
+     * Checks if the cut card has come out, meaning the shoe must be reshuffled before the next round.
+     * @return true if the cards dealt have reached the cut card, or the discards were put back during a round,
+     *         always false for an infinite shoe.
+     */
+    public boolean isCutCardOut() {
+        return numDecks != 0 && (size() - remaining >= cutCard || reshuffled);
+    }
+
+    /**
+     * Checks if the shoe is infinite.
+     * @return true if drawing a card never changes the composition.
+     */
+    public boolean isInfinite() {
+        return numDecks == 0;
+    }
+
+    /**
+     * Returns the number of standard decks in the shoe.
+     * @return The number of decks, or 0 for an infinite shoe.
+     */
+    public int getNumDecks() {
+        return numDecks;
+    }
+
+    /**
+     * Returns the number of cards left in the shoe.
+     * @return The number of cards not drawn yet, or {@link Integer#MAX_VALUE} for an infinite shoe.
+     */
+    public int remaining() {
+        return numDecks == 0 ? Integer.MAX_VALUE : remaining;
+    }
+
+    /**
+     * Returns the number of cards left of a rank.
+     * @param rankIndex The index of the rank in {@link Card#RANKS}.
+     * @return The number of cards of the rank not drawn yet, or the 4 of one deck for an infinite shoe, as a proportion.
+     */
+    public int remaining(int rankIndex) {
+        return numDecks == 0 ? Card.SUITS.length : rankCounts[rankIndex];
+    }
+
+    /**
+     * Counts the cards out of the shoe, dealt in this round or in the previous rounds since the last shuffle
+     * or since the discards were put back.
+     * @return A new array with the number of cards out of the shoe for every card code, all 0 for an infinite shoe.
+     */
+    public int[] dealtCounts() {
+        int[] counts = new int[Shoe.CODES];
+        if (numDecks != 0) {
+            for (int code = 0; code < counts.length; code++) {
+                counts[code] = numDecks - codeCounts[code];
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Returns the total number of cards in the shoe.
+     * @return The number of cards in the shoe, drawn or not, or {@link Integer#MAX_VALUE} for an infinite shoe.
+     */
+    public int size() {
+        return numDecks == 0 ? Integer.MAX_VALUE : Shoe.CODES * numDecks;
+    }
+}
@@ -0,0 +1,80 @@
+package model;
+
+/**
+ * A card counting tag system: the value added to the running count for each rank drawn.
+ * New systems can be defined with {@link #CountSystem(String, int[])}.
+ */
+public class CountSystem {
+    // Tags in the order of Card.RANKS: 2, 3, 4, 5, 6, 7, 8, 9, 10, J, Q, K, A
+    public static final CountSystem HI_LO = new CountSystem("Hi-Lo", new int[] {1, 1, 1, 1, 1, 0, 0, 0, -1, -1, -1, -1, -1});
+    public static final CountSystem KO = new CountSystem("KO", new int[] {1, 1, 1, 1, 1, 1, 0, 0, -1, -1, -1, -1, -1});
+    public static final CountSystem HI_OPT_I = new CountSystem("Hi-Opt I", new int[] {0, 1, 1, 1, 1, 0, 0, 0, -1, -1, -1, -1, 0});
+    public static final CountSystem OMEGA_II = new CountSystem("Omega II", new int[] {1, 1, 2, 2, 2, 1, 0, -1, -2, -2, -2, -2, 0});
+
+    private final String name; // The name of the system
+    private final int[] tags;  // The tag of each rank, indexed like Card.RANKS
+    private final int imbalance; // Sum of the tags of one standard deck, 0 for a balanced system
+
+    /**
+     * Constructs a tag system.
+     * @param name The name of the system.
+     * @param tags The tag of each rank, indexed like {@link Card#RANKS}.
+     * @throws IllegalArgumentException If there is not one tag per rank.
+     */
+    public CountSystem(String name, int[] tags) {
+        if (tags.length != Card.RANKS.length) {
+            throw new IllegalArgumentException("A tag is needed for each of the " + Card.RANKS.length + " ranks");
+        }
+        this.name = name;
+        this.tags = tags.clone();
+        int sum = 0;
+        for (int tag : tags) {
+            sum += tag * Card.SUITS.length;
+        }
+        this.imbalance = sum;
+    }
+
+    /**
+     * Retrieves the tag of a rank.
+     * @param rankIndex The index of the rank in {@link Card#RANKS}.
+     * @return The value added to the running count when the rank is drawn.
+     */
+    public int tag(int rankIndex) {
+        return tags[rankIndex];
+    }
+
+    /**
+     * Retrieves the sum of the tags of one standard deck.
+     * @return 0 for a balanced system, the final count of one deck for an unbalanced one (4 for KO).
+     */
+    public int getImbalance() {
+        return imbalance;
+    }
+
+    /**
+     * Retrieves the running count of a full shoe, so an unbalanced system reaches its pivot
+     * at the same point whatever the number of decks.
+     * @param numDecks The number of standard decks in the shoe.
+     * @return 0 for a balanced system, 4 - 4 * numDecks for KO.
+     */
+    public int initialRunningCount(int numDecks) {
+        return imbalance * (1 - numDecks);
+    }
+
+    /**
+     * Retrieves the name of the system.
+     * @return The name of the system.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the name of the system.
+     * @return The name of the system.
+     */
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,117 @@
+package model;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Tracks the running count, the true count and the remaining rank composition of a deck
+ * with a {@link CountSystem}. The deck updates the tracker for every card drawn, in constant time,
+ * and resets it when it is reshuffled.
+ * Updates must come from the thread drawing the cards; any other thread can read the values
+ * without locking. Values read together while cards are drawn may come from consecutive draws.
+ */
+public class CountTracker {
+    private final CountSystem system;              // The tag system
+    private final int numDecks;                    // Number of decks in the tracked deck
+    private final int initialRunningCount;         // Running count of the full deck
+    private final int[] tags;                      // The tag of each rank, copied for fast lookups
+    private final AtomicIntegerArray composition;  // Cards of each rank not drawn yet
+
+    private volatile int runningCount; // Sum of the tags of the cards drawn
+    private volatile int remaining;    // Cards not drawn yet
+
+    /**
+     * Constructs a tracker for a full deck.
+     * @param system The tag system.
+     * @param numDecks The number of standard decks in the tracked deck.
+     */
+    public CountTracker(CountSystem system, int numDecks) {
+        this.system = system;
+        this.numDecks = numDecks;
+        this.initialRunningCount = system.initialRunningCount(numDecks);
+        this.tags = new int[Card.RANKS.length];
+        for (int rank = 0; rank < tags.length; rank++) {
+            tags[rank] = system.tag(rank);
+        }
+        this.composition = new AtomicIntegerArray(Card.RANKS.length);
+        reset();
+    }
+
+    /**
+     * Counts a card drawn from the deck.
+     * @param card The card drawn.
+     */
+    public void onDraw(Card card) {
+        int rank = card.getRankIndex();
+        if (rank < 0) {
+            return; // Non-standard cards are not counted
+        }
+        runningCount += tags[rank];
+        composition.lazySet(rank, composition.get(rank) - 1);
+        remaining--;
+    }
+
+    /**
+     * Puts every card back: the running count is the initial one of the system and the composition is full.
+     */
+    public void reset() {
+        for (int rank = 0; rank < Card.RANKS.length; rank++) {
+            composition.lazySet(rank, Card.SUITS.length * numDecks);
+        }
+        runningCount = initialRunningCount;
+        remaining = Shoe.CODES * numDecks;
+    }
+
+    /**
+     * Retrieves the running count.
+     * @return The initial running count plus the sum of the tags of the cards drawn since the last shuffle.
+     */
+    public int getRunningCount() {
+        return runningCount;
+    }
+
+    /**
+     * Retrieves the true count, the running count divided by the number of decks left.
+     * @return The true count, or the running count if less than one deck is left.
+     */
+    public double getTrueCount() {
+        int left = remaining;
+        return left < Shoe.CODES ? runningCount : runningCount * (double) Shoe.CODES / left;
+    }
+
+    /**
+     * Retrieves the number of cards not drawn yet.
+     * @return The cards left in the deck.
+     */
+    public int getRemaining() {
+        return remaining;
+    }
+
+    /**
+     * Retrieves the number of cards of a rank not drawn yet.
+     * @param rankIndex The index of the rank in {@link Card#RANKS}.
+     * @return The cards of the rank left in the deck.
+     */
+    public int getRemaining(int rankIndex) {
+        return composition.get(rankIndex);
+    }
+
+    /**
+     * Retrieves the number of cards of each rank not drawn yet.
+     * @return A new array with the cards left of each rank, indexed like {@link Card#RANKS}.
+     */
+    public int[] getComposition() {
+        int[] counts = new int[Card.RANKS.length];
+        for (int rank = 0; rank < counts.length; rank++) {
+            counts[rank] = composition.get(rank);
+        }
+        return counts;
+    }
+
+    /**
+     * Retrieves the tag system of the tracker.
+     * @return The tag system.
+     */
+    public CountSystem getSystem() {
+        return system;
+    }
+}
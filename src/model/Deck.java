@@ -1,58 +1,282 @@
 package model;
 
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.List;
+import java.util.SplittableRandom;
 import java.util.Stack;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.random.RandomGenerator;
 
 /**
  * Represents a deck of playing cards.
  * The deck can contain multiple decks combined together.
+ * A deck can also be backed by a primitive {@link Shoe}, in which case
+ * {@link #drawCard()} adapts the drawn card codes to {@link Card} objects,
+ * or by a {@link CompositionShoe} that only counts the cards left, for huge or infinite shoes.
+ * {@link CountTracker}s attached to the deck are updated for every card drawn.
  */
 public class Deck {
-	public Stack<Card> cards; // Stack to hold the cards in the deck
+	public Stack<Card> cards; // Stack to hold the cards in the deck (empty when backed by a shoe)
+
+    private Shoe shoe;    // The primitive shoe backing this deck, or null
+    private CompositionShoe sampled; // The composition backing this deck, or null
+    private int numDecks; // The number of standard decks combined in this deck
+    private CountTracker[] trackers = new CountTracker[0]; // The trackers updated for every card drawn
 
     /**
-     * Constructs a deck with a specified number of standard decks combined together.
+     * Constructs a deck with a specified number of standard decks combined together,
+     * shuffled by a generator of its own rather than the one shared by every unseeded shuffle.
      * @param numDecks The number of standard decks to combine in this deck.
      */
     public Deck(int numDecks) {
+        this(numDecks, new SplittableRandom());
+    }
+
+    /**
+     * Constructs a deck shuffled with the given random source,
+     * so the same seed always produces the same card order.
+     * @param numDecks The number of standard decks to combine in this deck.
+     * @param random The random source used to shuffle the deck.
+     */
+    public Deck(int numDecks, RandomGenerator random) {
+        this.numDecks = numDecks;
         cards = new Stack<>();
-        buildDeck(numDecks); // Builds the deck with specified number of decks
-        Collections.shuffle(cards); // Shuffle the deck after building
+        buildDeck(numDecks);
+        shuffleCards(random);
+    }
+
+    /**
+     * Constructs a deck backed by a primitive shoe.
+     * Cards are drawn from the shoe as canonical {@link Card} instances, without building any card.
+     * @param shoe The shoe holding the card codes.
+     */
+    public Deck(Shoe shoe) {
+        this.cards = new Stack<>();
+        this.shoe = shoe;
+        this.numDecks = shoe.size() / Shoe.CODES;
+    }
+
+    /**
+     * Constructs a deck backed by a composition shoe, drawing its cards by weighted sampling.
+     * The shoe must be shuffled before the first card is drawn.
+     * @param sampled The shoe counting the cards left of each rank and suit.
+     */
+    public Deck(CompositionShoe sampled) {
+        this.cards = new Stack<>();
+        this.sampled = sampled;
+        this.numDecks = sampled.getNumDecks();
     }
 
     /**
      * Builds the deck by adding cards from multiple standard decks.
+     * The cards added are the shared canonical instances, so no card is built.
      * @param numDecks The number of standard decks to combine in this deck.
      */
     public void buildDeck(int numDecks) {
-        // Define the standard suits, ranks, and values of cards
-        String[] suits = {"H", "D", "C", "S"};
-        String[] ranks = {"2", "3", "4", "5", "6", "7", "8", "9", "10", "J", "Q", "K", "A"};
-        int[] values = {2, 3, 4, 5, 6, 7, 8, 9, 10, 10, 10, 10, 11};
-
-        // Generate cards for the specified number of decks
-        List<Card> newCards = IntStream.range(0, numDecks)
-                .boxed()
-                .flatMap(n -> IntStream.range(0, suits.length)
-                        .boxed()
-                        .flatMap(i -> IntStream.range(0, ranks.length)
-                                .mapToObj(j -> new Card(suits[i], ranks[j], values[j]))
-                        )
-                )
-                .collect(Collectors.toList());
+        cards.ensureCapacity(cards.size() + numDecks * Shoe.CODES);
 
-        // Add all generated cards to the deck
-        cards.addAll(newCards);
+        // Add the canonical cards of every suit and rank for the specified number of decks
+        for (int n = 0; n < numDecks; n++) {
+            for (int ordinal = 0; ordinal < Shoe.CODES; ordinal++) {
+                cards.add(Card.of(ordinal));
+            }
+        }
     }
 
     /**
      * Draws (removes and returns) a card from the top of the deck.
+     * If a shoe runs out during a round, its discards are reshuffled and the trackers count again
+     * from the cards still in play.
      * @return The card drawn from the deck.
      */
     public Card drawCard() {
-        return cards.pop(); // Remove and return the top card from the deck
+        Card card;
+        if (shoe != null) {
+            if (shoe.remaining() == 0) {
+                shoe.reshuffleDiscards();
+                recount(shoe.dealtCounts());
+            }
+            card = Card.of(shoe.drawCode()); // Move the shoe index, no card is built
+        } else if (sampled != null) {
+            if (sampled.remaining() == 0) {
+                sampled.reshuffleDiscards();
+                recount(sampled.dealtCounts());
+            }
+            card = Card.of(sampled.drawCode());
+        } else {
+            card = cards.pop(); // Remove and return the top card from the deck
+        }
+        for (CountTracker tracker : trackers) {
+            tracker.onDraw(card);
+        }
+        return card;
+    }
+
+    /**
+     * Marks the start of a round, so a shoe running out during the round keeps its cards in play.
+     */
+    public void startRound() {
+        if (shoe != null) {
+            shoe.startRound();
+        } else if (sampled != null) {
+            sampled.startRound();
+        }
+    }
+
+    /**
+     * Puts every card back into the deck, shuffles it and resets the attached trackers.
+     * @param random The random source used to shuffle the deck.
+     */
+    public void shuffle(RandomGenerator random) {
+        if (shoe != null) {
+            shoe.shuffle(random);
+        } else if (sampled != null) {
+            sampled.shuffle(random);
+        } else {
+            cards.clear();
+            buildDeck(numDecks);
+            shuffleCards(random);
+        }
+        resetTrackers();
+    }
+
+    /**
+     * Puts every card back into the deck and shuffles it with a generator seeded from the source.
+     * A shoe records the seed of its new order, see {@link Shoe#getSeed()} and {@link CompositionShoe#getSeed()}.
+     * @param source The source of the seed and of the generator.
+     */
+    public void shuffle(ShuffleSource source) {
+        if (shoe != null) {
+            shoe.shuffle(source);
+        } else if (sampled != null) {
+            sampled.shuffle(source);
+        } else {
+            cards.clear();
+            buildDeck(numDecks);
+            shuffleCards(ShuffleSource.generator(source.getAlgorithm(), source.nextSeed()));
+        }
+        resetTrackers();
+    }
+
+    /**
+     * Shuffles the stack in place, in the same order as {@link Collections#shuffle(java.util.List, java.util.Random)}
+     * for a {@link java.util.Random} with the same seed.
+     * @param random The random source used to shuffle the stack.
+     */
+    private void shuffleCards(RandomGenerator random) {
+        for (int i = cards.size(); i > 1; i--) {
+            Collections.swap(cards, i - 1, random.nextInt(i));
+        }
+    }
+
+    /**
+     * Resets the attached trackers and counts again the cards out of the deck.
+     * @param dealtCounts The number of cards out of the deck for every card code.
+     */
+    private void recount(int[] dealtCounts) {
+        for (CountTracker tracker : trackers) {
+            count(tracker, dealtCounts);
+        }
+    }
+
+    /**
+     * Resets a tracker and counts the cards out of the deck.
+     * @param tracker The tracker to bring up to date.
+     * @param dealtCounts The number of cards out of the deck for every card code.
+     */
+    private static void count(CountTracker tracker, int[] dealtCounts) {
+        tracker.reset();
+        for (int code = 0; code < dealtCounts.length; code++) {
+            for (int n = 0; n < dealtCounts[code]; n++) {
+                tracker.onDraw(Card.of(code));
+            }
+        }
+    }
+
+    /**
+     * Counts the cards out of the deck since the last shuffle.
+     * @return A new array with the number of cards out of the deck for every card code.
+     */
+    private int[] dealtCounts() {
+        if (shoe != null) {
+            return shoe.dealtCounts();
+        }
+        if (sampled != null) {
+            return sampled.dealtCounts();
+        }
+        int[] counts = new int[Shoe.CODES];
+        Arrays.fill(counts, numDecks);
+        for (Card card : cards) {
+            int code = card.ordinal();
+            if (code >= 0) {
+                counts[code]--;
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Resets the attached trackers after a shuffle.
+     */
+    private void resetTrackers() {
+        for (CountTracker tracker : trackers) {
+            tracker.reset();
+        }
+    }
+
+    /**
+     * Attaches a new tracker to the deck. The tracker first counts the cards already out of the deck,
+     * so it holds the remaining composition even when attached in the middle of a shoe.
+     * @param system The tag system of the tracker.
+     * @return The tracker, which can be read from any thread.
+     * @throws IllegalStateException If the deck is an infinite shoe, where counting gives no information.
+     */
+    public CountTracker addTracker(CountSystem system) {
+        if (sampled != null && sampled.isInfinite()) {
+            throw new IllegalStateException("An infinite shoe cannot be counted");
+        }
+        CountTracker tracker = new CountTracker(system, numDecks);
+        count(tracker, dealtCounts());
+        CountTracker[] newTrackers = Arrays.copyOf(trackers, trackers.length + 1);
+        newTrackers[trackers.length] = tracker;
+        trackers = newTrackers;
+        return tracker;
+    }
+
+    /**
+     * Checks if the cut card of the shoe backing this deck has come out.
+     * @return true if the shoe must be reshuffled before the next round, always false for a stack.
+     */
+    public boolean isCutCardOut() {
+        if (shoe != null) {
+            return shoe.isCutCardOut();
+        }
+        return sampled != null && sampled.isCutCardOut();
+    }
+
+    /**
+     * Returns the number of cards left in the deck.
+     * @return The number of cards not drawn yet, or {@link Integer#MAX_VALUE} for an infinite shoe.
+     */
+    public int remaining() {
+        if (shoe != null) {
+            return shoe.remaining();
+        }
+        return sampled != null ? sampled.remaining() : cards.size();
+    }
+
+    /**
+     * Retrieves the primitive shoe backing this deck.
+     * @return The shoe, or null if the deck holds its cards in a stack or a composition.
+     */
+    public Shoe getShoe() {
+        return shoe;
+    }
+
+    /**
+     * Retrieves the composition shoe backing this deck.
+     * @return The shoe, or null if the deck is not backed by a composition.
+     */
+    public CompositionShoe getCompositionShoe() {
+        return sampled;
     }
 }
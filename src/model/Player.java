@@ -6,11 +6,16 @@ import java.util.ArrayList;
  * The Player class represents a player in a card game.
  * It manages the player's hand of cards, calculates the sum of card values,
  * and keeps track of the number of aces in the hand.
+ * The hand is evaluated incrementally: every added card updates the hard total,
+ * the ace count and the best total in constant time.
  */
 public class Player {
 	public ArrayList<Card> hand; // The player's hand of cards
-	public int sum;              // The sum of values of cards in the hand
-	public int aceCount;         // The count of aces in the hand
+	public int sum;              // The best sum of values of cards in the hand
+
+	private int hardSum;         // The sum of values of cards in the hand with every ace counted as 1
+	private int aceCount;        // The count of all aces in the hand
+	private boolean soft;        // Whether an ace is counted as 11 in the sum
 
     /**
      * Constructs a new Player object with an empty hand, sum initialized to 0,
@@ -19,7 +24,18 @@ public class Player {
     public Player() {
         this.hand = new ArrayList<>();
         this.sum = 0;
-        this.aceCount = 0;
+    }
+
+    /**
+     * Empties the player's hand so the player can be reused for a new round.
+     * The hand keeps its capacity, so no memory is allocated.
+     */
+    public void clearHand() {
+        hand.clear();
+        sum = 0;
+        hardSum = 0;
+        aceCount = 0;
+        soft = false;
     }
 
     /**
@@ -29,20 +45,29 @@ public class Player {
      */
     public void addToHand(Card card) {
         hand.add(card);
-        updateSumAndAceCount();
+        addValue(card.getValue());
     }
 
     /**
-     * Updates the sum of card values and the count of aces in the player's hand.
-     * This method should be called whenever a card is added to the hand.
+     * Updates the hand totals with the value of a new card, without looking at the rest of the hand.
+     * An ace is counted as 11 only if the hand does not go over 21 with it.
+     *
+     * @param value The value of the new card, with aces valued 11.
      */
-    private void updateSumAndAceCount() {
-        sum = hand.stream().mapToInt(Card::getValue).sum(); // Calculate sum of card values
-        aceCount = (int) hand.stream().filter(Card::isAce).count(); // Count number of aces
+    private void addValue(int value) {
+        if (value == 11) {
+            hardSum += 1;
+            aceCount++;
+        } else {
+            hardSum += value;
+        }
+        soft = aceCount > 0 && hardSum + 10 <= 21;
+        sum = soft ? hardSum + 10 : hardSum;
     }
 
     /**
      * Returns the current sum of card values in the player's hand.
+     * Aces are already counted as 1 or 11 to give the best sum.
      *
      * @return The sum of card values in the hand.
      */
@@ -51,17 +76,21 @@ public class Player {
     }
 
     /**
-     * Reduces the sum of card values by 10 for each ace in the hand,
-     * if reducing the sum helps to stay below or equal to 21.
+     * Returns the sum of card values in the player's hand with every ace counted as 1.
      *
-     * @return The reduced sum of card values.
+     * @return The hard sum of the hand.
      */
-    public int reduceAce() {
-        while (sum > 21 && aceCount > 0) {
-            sum -= 10;
-            aceCount--;
-        }
-        return sum;
+    public int getHardSum() {
+        return hardSum;
+    }
+
+    /**
+     * Checks if the hand is soft, meaning an ace is counted as 11.
+     *
+     * @return true if an ace is counted as 11, false otherwise.
+     */
+    public boolean isSoft() {
+        return soft;
     }
 
     /**
@@ -74,7 +103,8 @@ public class Player {
     }
 
     /**
-     * Returns the number of aces in the player's hand.
+     * Returns the number of aces in the player's hand, however they are counted.
+     * Use {@link #isSoft()} to know if one of them is counted as 11.
      *
      * @return The count of aces in the hand.
      */
@@ -0,0 +1,250 @@
+package model;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Represents a shoe of one or more decks stored as primitive card codes.
+ * A code is {@code suit * 13 + rank}, using the indexes of {@link Card#SUITS} and {@link Card#RANKS}.
+ * The shoe is shuffled in place with Fisher-Yates and a card is drawn by moving an index,
+ * so shuffling and drawing never allocate.
+ * The shoe lasts across rounds: a cut card placed at the penetration tells when it must be reshuffled.
+ * If a round runs out of cards before the cut card comes out, the discards of the previous rounds
+ * are reshuffled to finish it, and the whole shoe is reshuffled before the next round.
+ * A shoe shuffled by a {@link ShuffleSource} records the seed of its order, so it can be replayed.
+ */
+public class Shoe {
+    public static final int CODES = 52; // Number of distinct card codes
+    public static final int RANK_COUNT = 13; // Number of ranks in a suit
+
+    private final byte[] codes; // The card codes in draw order
+    private final int cutCard;  // Index of the cut card, the shoe is reshuffled once it is reached
+    private int position;       // Index of the next card to draw
+    private int end;            // Index after the last card that can be drawn
+    private int roundStart;     // Index of the first card of the current round
+    private RandomGenerator random; // The random source of the last shuffle, which also reshuffles the discards
+    private ShuffleSource.Algorithm algorithm; // Generator of the current order, or null if it was not seeded
+    private long seed;          // Seed of the current order, when the algorithm is known
+
+    /**
+     * Constructs an unshuffled shoe with the specified number of standard decks,
+     * with the cut card at the end of the shoe.
+     * @param numDecks The number of standard decks in the shoe.
+     */
+    public Shoe(int numDecks) {
+        this(numDecks, 1.0);
+    }
+
+    /**
+     * Constructs an unshuffled shoe with the specified number of standard decks and penetration.
+     * @param numDecks The number of standard decks in the shoe.
+     * @param penetration The fraction of the shoe dealt before the cut card comes out, between 0 and 1.
+     * @throws IllegalArgumentException If the penetration is not greater than 0 and at most 1.
+     */
+    public Shoe(int numDecks, double penetration) {
+        if (!(penetration > 0 && penetration <= 1)) {
+            throw new IllegalArgumentException("Penetration must be greater than 0 and at most 1: " + penetration);
+        }
+        codes = new byte[CODES * numDecks];
+        sort();
+        end = codes.length;
+        cutCard = (int) (codes.length * penetration);
+    }
+
+    /**
+     * Puts every card back into the shoe and shuffles it in place with Fisher-Yates.
+     * The order is not seeded, so {@link #getSeed()} cannot replay it.
+     * @param random The random source used to shuffle the shoe.
+     */
+    public void shuffle(RandomGenerator random) {
+        for (int i = codes.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            byte swap = codes[i];
+            codes[i] = codes[j];
+            codes[j] = swap;
+        }
+        this.random = random;
+        position = 0;
+        roundStart = 0;
+        end = codes.length;
+        algorithm = null;
+    }
+
+    /**
+     * Puts every card back into the shoe and shuffles it with a generator seeded from the source,
+     * recording the seed of the new order.
+     * @param source The source of the seed and of the generator.
+     * @return The seed of the new order.
+     */
+    public long shuffle(ShuffleSource source) {
+        long shoeSeed = source.nextSeed();
+        replay(source.getAlgorithm(), shoeSeed);
+        return shoeSeed;
+    }
+
+    /**
+     * Puts every card back into the shoe and shuffles it into the order recorded by a seed.
+     * The shoe is sorted before shuffling, so the cards are in the same order as after the shuffle
+     * that recorded the seed, in any shoe with the same number of decks.
+     * @param algorithm The algorithm of the recorded shuffle.
+     * @param seed The recorded seed.
+     */
+    public void replay(ShuffleSource.Algorithm algorithm, long seed) {
+        sort();
+        shuffle(ShuffleSource.generator(algorithm, seed));
+        this.algorithm = algorithm;
+        this.seed = seed;
+    }
+
+    /**
+     * Retrieves the algorithm of the current order.
+     * @return The algorithm of the last seeded shuffle, or null if the shoe was last shuffled without a seed.
+     */
+    public ShuffleSource.Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Retrieves the seed of the current order, which {@link #replay(ShuffleSource.Algorithm, long)} reproduces.
+     * @return The seed of the last seeded shuffle.
+     * @throws IllegalStateException If the shoe was last shuffled without a seed.
+     */
+    public long getSeed() {
+        if (algorithm == null) {
+            throw new IllegalStateException("The shoe was not shuffled from a seed");
+        }
+        return seed;
+    }
+
+    /**
+     * Puts the codes back in the order of a new shoe: every deck by suit, then by rank.
+     */
+    private void sort() {
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = (byte) (i % CODES);
+        }
+    }
+
+    /**
+     * Returns the code of a card of the shoe without drawing it.
+     * @param index The index of the card in draw order, from 0 to {@link #size()} - 1.
+     * @return The code of the card at that index.
+     */
+    public int codeAt(int index) {
+        return codes[index];
+    }
+
+    /**
+     * Draws the next card of the shoe, reshuffling the discards first if the shoe is empty.
+     * @return The code of the card drawn.
+     * @throws IllegalStateException If the shoe is empty and the current round holds every card.
+     */
+    public int drawCode() {
+        if (position == end) {
+            reshuffleDiscards();
+        }
+        return codes[position++];
+    }
+
+    /**
+     * Marks the start of a round: the cards drawn from now on are in play until the next round starts.
+     */
+    public void startRound() {
+        roundStart = position;
+    }
+
+    /**
+     * Reshuffles the discards of the previous rounds, in the same shoe as the cards of the current round
+     * which stay in play behind them, so the round can go on.
+     * The cut card is then out, so the whole shoe is reshuffled before the next round.
+     * @throws IllegalStateException If the current round holds every card, or the shoe was never shuffled.
+     */
+    public void reshuffleDiscards() {
+        if (roundStart == 0 || random == null) {
+            throw new IllegalStateException("No discards to reshuffle: the round holds every card of the shoe");
+        }
+        // The discards are the codes before the round; the cards in play stay after them, out of reach
+        for (int i = roundStart - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            byte swap = codes[i];
+            codes[i] = codes[j];
+            codes[j] = swap;
+        }
+        end = roundStart;
+        position = 0;
+        roundStart = 0;
+    }
+
+    /**
+     * Counts the cards out of the shoe, dealt in this round or in the previous rounds since the last shuffle.
+     * @return A new array with the number of cards out of the shoe for every card code.
+     */
+    public int[] dealtCounts() {
+        int[] counts = new int[CODES];
+        for (int i = 0; i < position; i++) {
+            counts[codes[i]]++;
+        }
+        for (int i = end; i < codes.length; i++) {
+            counts[codes[i]]++;
+        }
+        return counts;
+    }
+
+    /**
+     * Checks if the cut card has come out, meaning the shoe must be reshuffled before the next round.
+     * @return true if the cards dealt have reached the cut card, or the discards were reshuffled during a round.
+     */
+    public boolean isCutCardOut() {
+        return position >= cutCard || end < codes.length;
+    }
+
+    /**
+     * Returns the index of the cut card.
+     * @return The number of cards dealt before the cut card comes out.
+     */
+    public int getCutCard() {
+        return cutCard;
+    }
+
+    /**
+     * Returns the number of cards left in the shoe.
+     * @return The number of cards not drawn yet.
+     */
+    public int remaining() {
+        return end - position;
+    }
+
+    /**
+     * Returns the total number of cards in the shoe.
+     * @return The number of cards in the shoe, drawn or not.
+     */
+    public int size() {
+        return codes.length;
+    }
+
+    /**
+     * Retrieves the suit index of a card code.
+     * @param code The card code.
+     * @return The index of the suit in {@link Card#SUITS}.
+     */
+    public static int suitOf(int code) {
+        return code / RANK_COUNT;
+    }
+
+    /**
+     * Retrieves the rank index of a card code.
+     * @param code The card code.
+     * @return The index of the rank in {@link Card#RANKS}.
+     */
+    public static int rankOf(int code) {
+        return code % RANK_COUNT;
+    }
+
+    /**
+     * Retrieves the value of a card code in the game.
+     * @param code The card code.
+     * @return The value of the card, with aces counted as 11.
+     */
+    public static int valueOf(int code) {
+        return Card.VALUES[code % RANK_COUNT];
+    }
+}
@@ -0,0 +1,112 @@
+package model;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/**
+ * Source of the shuffles of a table: every shoe is shuffled by a generator of its own,
+ * created from a 64-bit seed drawn from this source.
+ * The seed of a shoe is recorded by {@link Shoe#getSeed()}, and {@link Shoe#replay(Algorithm, long)}
+ * shuffles a shoe again into the same order from that seed and algorithm.
+ * A source only touches its own state, so tables on different threads never contend on a shared generator.
+ */
+public class ShuffleSource {
+
+    /**
+     * The generators a shoe can be shuffled with.
+     */
+    public enum Algorithm {
+        RANDOM,     // java.util.Random, the legacy linear congruential generator
+        SPLITTABLE, // SplittableRandom, the fastest generator for simulation
+        L64X128,    // L64X128MixRandom, a LXM generator with better statistical quality
+        SECURE      // SHA1PRNG SecureRandom, for play where the next shoe must not be predictable
+    }
+
+    private static final RandomGeneratorFactory<RandomGenerator> L64X128_FACTORY =
+            RandomGeneratorFactory.of("L64X128MixRandom"); // Factory of the L64X128 generators
+
+    private final Algorithm algorithm; // The generator of every shoe
+    private final RandomGenerator seeds; // The generator of the seed of every shoe
+
+    /**
+     * Constructs a reproducible source: the same seed always gives the same sequence of shoes.
+     * @param algorithm The generator of every shoe.
+     * @param seed The seed of the sequence of shoe seeds.
+     */
+    public ShuffleSource(Algorithm algorithm, long seed) {
+        this.algorithm = algorithm;
+        this.seeds = new SplittableRandom(seed);
+    }
+
+    /**
+     * Constructs a source whose shoe seeds come from the strong generator of the platform,
+     * so the sequence of shoes cannot be predicted; each shoe can still be replayed from its recorded seed.
+     * @param algorithm The generator of every shoe.
+     */
+    public ShuffleSource(Algorithm algorithm) {
+        this.algorithm = algorithm;
+        this.seeds = new SecureRandom();
+    }
+
+    /**
+     * Draws the seed of the next shoe.
+     * @return The seed of the next shoe.
+     */
+    public long nextSeed() {
+        return seeds.nextLong();
+    }
+
+    /**
+     * Retrieves the generator of every shoe.
+     * @return The algorithm of this source.
+     */
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Creates the generator shuffling a shoe, which always produces the same numbers for the same seed.
+     * @param algorithm The algorithm of the generator.
+     * @param seed The seed of the shoe.
+     * @return A new generator seeded with the seed.
+     * @throws IllegalStateException If the platform has no SHA1PRNG implementation.
+     */
+    public static RandomGenerator generator(Algorithm algorithm, long seed) {
+        switch (algorithm) {
+            case RANDOM:
+                return new Random(seed);
+            case SPLITTABLE:
+                return new SplittableRandom(seed);
+            case L64X128:
+                return L64X128_FACTORY.create(seed);
+            case SECURE:
+                try {
+                    // SHA1PRNG seeded before its first output only depends on that seed
+                    SecureRandom random = SecureRandom.getInstance("SHA1PRNG");
+                    random.setSeed(seedBytes(seed));
+                    return random;
+                } catch (NoSuchAlgorithmException e) {
+                    throw new IllegalStateException("SHA1PRNG is not available", e);
+                }
+            default:
+                throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+        }
+    }
+
+    /**
+     * Converts a seed to the bytes seeding a SecureRandom, most significant first.
+     * @param seed The seed.
+     * @return The 8 bytes of the seed.
+     */
+    private static byte[] seedBytes(long seed) {
+        byte[] bytes = new byte[Long.BYTES];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (seed >>> (Long.SIZE - Byte.SIZE * (i + 1)));
+        }
+        return bytes;
+    }
+}
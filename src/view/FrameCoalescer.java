@@ -0,0 +1,64 @@
+package view;
+
+import controller.GameListener;
+import model.Card;
+
+import javax.swing.Timer;
+
+/**
+ * Turns bursts of game events into at most one view update per frame.
+ * The first event of a burst starts a one-shot Swing timer; the events that follow before it fires
+ * are absorbed, and the update then runs once on the event dispatch thread.
+ */
+public class FrameCoalescer implements GameListener {
+
+    private static final int FRAME_MILLIS = 16; // Length of a frame, about 60 updates per second
+
+    private final Timer timer; // Timer running the update at the end of the frame
+
+    /**
+     * Constructs a coalescer running the given update.
+     *
+     * @param update The view update, run on the event dispatch thread.
+     */
+    public FrameCoalescer(Runnable update) {
+        timer = new Timer(FRAME_MILLIS, e -> update.run());
+        timer.setRepeats(false);
+    }
+
+    /**
+     * Schedules the update at the end of the frame, unless it is already scheduled.
+     */
+    private void changed() {
+        if (!timer.isRunning()) {
+            timer.start();
+        }
+    }
+
+    /**
+     * Cancels a scheduled update.
+     */
+    public void stop() {
+        timer.stop();
+    }
+
+    @Override
+    public void cardDealt(int seat, Card card) {
+        changed();
+    }
+
+    @Override
+    public void roundStarted() {
+        changed();
+    }
+
+    @Override
+    public void turnEnded(int seat) {
+        changed();
+    }
+
+    @Override
+    public void roundSettled(int settlement) {
+        changed();
+    }
+}
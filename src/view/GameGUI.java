@@ -1,6 +1,9 @@
 package view;
 
+import controller.CardAtlas;
 import controller.GameLogic;
+import controller.LatencyHistogram;
+import controller.Metrics;
 
 import javax.sound.sampled.AudioInputStream;
 import javax.sound.sampled.AudioSystem;
@@ -10,21 +13,22 @@ import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.io.File;
-import java.util.Observable;
-import java.util.Observer;
 
 /**
  * GameGR class represents the graphical user interface for a Blackjack game.
- * It extends JFrame and implements Observer to receive updates from the game controller.
+ * It extends JFrame and subscribes to the events of the game controller,
+ * repainting at most once per frame however many events arrive.
  */
-@SuppressWarnings({ "deprecation", "serial" })
-public class GameGUI extends JFrame implements Observer {
+@SuppressWarnings("serial")
+public class GameGUI extends JFrame {
 
     private static Clip cardClip;
+    private static final LatencyHistogram DRAW_GAME = Metrics.getInstance().histogram("view.drawGame");
     private GameLogic controller;
+    private FrameCoalescer updates; // Repaints the frame after the events of the controller
 
-    public int cardWidth = 120;
-    public int cardHeight = 170;
+    public int cardWidth = CardAtlas.CARD_WIDTH;
+    public int cardHeight = CardAtlas.CARD_HEIGHT;
     
 
     public JPanel gamePanel, buttonPanel;
@@ -38,7 +42,20 @@ public class GameGUI extends JFrame implements Observer {
         initialize();
         setupButtons();
         this.controller = GameLogic.getInstance();
-        controller.addObserver(this);
+        this.updates = new FrameCoalescer(this::repaint);
+        controller.getEvents().subscribe(updates);
+    }
+
+    /**
+     * Unsubscribes from the controller before closing the frame.
+     */
+    @Override
+    public void dispose() {
+        if (updates != null) {
+            controller.getEvents().unsubscribe(updates);
+            updates.stop();
+        }
+        super.dispose();
     }
 
     /**
@@ -113,7 +130,7 @@ public class GameGUI extends JFrame implements Observer {
             public void actionPerformed(ActionEvent e) {
                 playButtonClickSound("src/resources/click.wav");
                 controller.hitAction();
-                if (GameLogic.getPlayer1().getSum() > 21 || GameLogic.getPlayer1().getSum() == 21) {
+                if (controller.getPlayer1().getSum() > 21 || controller.getPlayer1().getSum() == 21) {
                     playCardSound("src/resources/flip.wav");
                     hitButton.setEnabled(false);
                     hitButton.setForeground(Color.RED);
@@ -157,20 +174,23 @@ public class GameGUI extends JFrame implements Observer {
      * @param g The graphics context to draw on.
      */
     public void drawGame(Graphics g) {
+        long start = System.nanoTime();
+        PaintEvent event = new PaintEvent();
+        event.begin();
         try {
             // Get drawing data from the controller
-            Image hiddenCardImage = controller.getHiddenCardImage(stayButton.isEnabled());
+            GameLogic.CardImageData hiddenCard = controller.getHiddenCardData(stayButton.isEnabled(), 120, 40);
             String dealerInitialValue = controller.getDealerInitialValue(stayButton.isEnabled());
             java.util.List<String> playerSums = controller.getPlayerSums();
             java.util.List<GameLogic.CardImageData> dealerCards = controller.getDealerCardsData(stayButton.isEnabled(), 100 + cardWidth - 60, 40);
-            java.util.List<GameLogic.CardImageData> player1Cards = controller.getPlayerCardsData(GameLogic.getPlayer1(), 120, 500, false);
-            java.util.List<GameLogic.CardImageData> bot1Cards = controller.getPlayerCardsData(GameLogic.getBot1(), 670, 40, false);
-            java.util.List<GameLogic.CardImageData> bot2Cards = controller.getPlayerCardsData(GameLogic.getBot2(), 670, 500, false);
+            java.util.List<GameLogic.CardImageData> player1Cards = controller.getPlayerCardsData(controller.getPlayer1(), 120, 500, false);
+            java.util.List<GameLogic.CardImageData> bot1Cards = controller.getPlayerCardsData(controller.getBot1(), 670, 40, false);
+            java.util.List<GameLogic.CardImageData> bot2Cards = controller.getPlayerCardsData(controller.getBot2(), 670, 500, false);
 
             g.setFont(new Font("Arial", Font.PLAIN, 20));
             g.setColor(Color.black);
 
-            g.drawImage(hiddenCardImage, 120, 40, cardWidth, cardHeight, null);
+            drawCard(g, hiddenCard);
             g.drawString(playerSums.get(0), 120, 485);
             g.drawString(playerSums.get(1), 670, 245);
             g.drawString(playerSums.get(2), 670, 485);
@@ -183,7 +203,6 @@ public class GameGUI extends JFrame implements Observer {
 
             if (!stayButton.isEnabled()) {
                 String winnerMessage = controller.getWinnerMessage();
-                GameLogic.gamesPlayed++;
                 g.drawString(winnerMessage, 170, 350);
                 g.drawString(playerSums.get(1), 670, 245);
                 g.drawString(playerSums.get(2), 670, 485);
@@ -191,6 +210,15 @@ public class GameGUI extends JFrame implements Observer {
             }
         } catch (Exception e) {
             e.printStackTrace();
+        } finally {
+            DRAW_GAME.recordSince(start);
+            event.end();
+            if (event.shouldCommit()) {
+                event.cards = controller.getDealer().getHand().size() + controller.getPlayer1().getHand().size()
+                        + controller.getBot1().getHand().size() + controller.getBot2().getHand().size();
+                event.shoeRemaining = controller.getTable().getDeck().remaining();
+                event.commit();
+            }
         }
     }
 
@@ -201,10 +229,24 @@ public class GameGUI extends JFrame implements Observer {
      */
     public void drawCards(Graphics g, java.util.List<GameLogic.CardImageData> cards) {
         for (GameLogic.CardImageData cardData : cards) {
-            g.drawImage(cardData.getImage(), cardData.getX(), cardData.getY(), cardData.getWidth(), cardData.getHeight(), null);
+            drawCard(g, cardData);
         }
     }
 
+    /**
+     * Draws the rectangle of a card image; a sprite of the card atlas is copied without scaling.
+     * @param g The graphics context to draw on.
+     * @param cardData The card image and its position.
+     */
+    public void drawCard(Graphics g, GameLogic.CardImageData cardData) {
+        int x = cardData.getX();
+        int y = cardData.getY();
+        int sourceX = cardData.getSourceX();
+        int sourceY = cardData.getSourceY();
+        g.drawImage(cardData.getImage(), x, y, x + cardData.getWidth(), y + cardData.getHeight(),
+                sourceX, sourceY, sourceX + cardData.getSourceWidth(), sourceY + cardData.getSourceHeight(), null);
+    }
+
     /**
      * Plays a card flip sound effect.
      * @param audioFilePath The file path to the sound effect.
@@ -241,10 +283,4 @@ public class GameGUI extends JFrame implements Observer {
             ex.printStackTrace();
         }
     }
-
-    @Override
-    public void update(Observable o, Object arg) {
-        System.out.println("Update received from Controller");
-        repaint();
-    }
 }
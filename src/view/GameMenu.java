@@ -9,6 +9,8 @@ import javax.sound.sampled.AudioSystem;
 import javax.sound.sampled.Clip;
 import javax.swing.*;
 import controller.GameLogic;
+import controller.StatsAggregator;
+import controller.Table;
 
 import java.awt.*;
 import java.awt.event.ActionEvent;
@@ -141,8 +143,9 @@ public class GameMenu extends JFrame {
         avatarLabel = new JLabel();
         countPanel.add(avatarLabel);
         
-        int level = GameLogic.gamesWon / 10;
-        int progress = (GameLogic.gamesWon % 10) * 10;
+        Table table = GameLogic.getInstance().getTable();
+        int level = table.gamesWon / 10;
+        int progress = (table.gamesWon % 10) * 10;
 
         levelLabel = new JLabel("Livello: " + level);
         levelLabel.setFont(new Font("Arial", Font.BOLD, 20));
@@ -181,9 +184,6 @@ public class GameMenu extends JFrame {
         });
         
         startButton.addActionListener(e -> {
-            GameLogic.gamesPlayed = 0;
-            GameLogic.gamesWon = 0;
-            GameLogic.gamesLost = 0;
             playButtonClickSound("src/resources/click.wav");
 
             playerName = promptPlayerName();
@@ -191,6 +191,7 @@ public class GameMenu extends JFrame {
                 JOptionPane.showMessageDialog(BlackJackView ,"Error: A name must be entered!");
                 return;
             }
+            GameLogic.getInstance().loadProfile(playerName);  // Stored statistics of the player, if any
             selectAvatar();
             dispose();
 
@@ -274,10 +275,21 @@ public class GameMenu extends JFrame {
     	updateAvatarLabel();
         CardLayout cardLayout = (CardLayout) mainPanel.getLayout();
         cardLayout.show(mainPanel, "Stats");
-        countLabel.setText("<html><p>" + playerName + " has played: " + GameLogic.gamesPlayed + " games</p>"
-                + "<p style='margin-top: 20px;'>Games won: " + GameLogic.gamesWon + "<p>Games lost: " + GameLogic.gamesLost + "</html>");
-        int level = GameLogic.gamesWon / 10;
-        int progress = (GameLogic.gamesWon % 10) * 10;
+        Table table = GameLogic.getInstance().getTable();
+        StatsAggregator.Snapshot recent = GameLogic.getInstance().getAggregator().snapshot();
+        StringBuilder windows = new StringBuilder();
+        for (int w = 0; w < StatsAggregator.WINDOWS.length && recent.windowRounds[w] > 0; w++) {
+            windows.append("<p>Won in the last ").append(recent.windowRounds[w]).append(" games: ")
+                    .append(Math.round(recent.winRate(w) * 100)).append("%</p>");
+            if (recent.windowRounds[w] < StatsAggregator.WINDOWS[w]) {
+                break;  // The larger windows hold the same games
+            }
+        }
+        countLabel.setText("<html><p>" + playerName + " has played: " + table.gamesPlayed + " games</p>"
+                + "<p style='margin-top: 20px;'>Games won: " + table.gamesWon + "<p>Games lost: " + table.gamesLost
+                + windows + "<p>Longest streaks: " + recent.longestWins + " won, " + recent.longestLosses + " lost</p></html>");
+        int level = table.gamesWon / 10;
+        int progress = (table.gamesWon % 10) * 10;
         progressBar.setValue(progress);
         levelLabel.setText("Livello: " + level);
     } 
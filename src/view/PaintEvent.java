@@ -0,0 +1,25 @@
+package view;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event covering one paint of the game table by {@link GameGUI#drawGame}.
+ */
+@Name("jblackjack.Paint")
+@Label("Paint")
+@Category("JBlackJack")
+@Description("A paint of the game table")
+final class PaintEvent extends Event {
+
+    @Label("Cards")
+    @Description("Cards painted, every seat and the dealer together")
+    int cards;
+
+    @Label("Shoe Depth")
+    @Description("Cards left in the shoe")
+    int shoeRemaining;
+}